@@ -0,0 +1,33 @@
+package com.gasstation.config;
+
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * Clock behind {@code createdAt}/{@code updatedAt}. Normally "now"; code that
+ * writes history (the synthetic data generator) can pin it for the current
+ * thread so backfilled rows carry the time they describe.
+ */
+@Component("auditingClock")
+public class AuditingClock implements DateTimeProvider {
+
+    private static final ThreadLocal<LocalDateTime> PINNED = new ThreadLocal<>();
+
+    public static void pin(LocalDateTime time) {
+        PINNED.set(time);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        LocalDateTime pinned = PINNED.get();
+        return Optional.of(pinned != null ? pinned : LocalDateTime.now());
+    }
+}
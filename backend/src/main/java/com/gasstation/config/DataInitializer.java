@@ -2,9 +2,11 @@ package com.gasstation.config;
 
 import com.gasstation.entity.*;
 import com.gasstation.repository.*;
+import com.gasstation.service.SalesRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +20,7 @@ import java.util.Set;
 
 @Component
 @Profile("h2")
+@Order(1)
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
@@ -33,7 +36,7 @@ public class DataInitializer implements CommandLineRunner {
     private LotteryGameRepository lotteryGameRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private SalesRollupService salesRollupService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -258,7 +261,7 @@ public class DataInitializer implements CommandLineRunner {
             transaction.setDiscountAmount(BigDecimal.ZERO);
 
             // Save transaction
-            transaction = transactionRepository.save(transaction);
+            transaction = salesRollupService.saveAndRecord(transaction, null);
 
             System.out.println("Created sample transaction: " + transactionNumber + " - $" + total);
         } catch (Exception e) {
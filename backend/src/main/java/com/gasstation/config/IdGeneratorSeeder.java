@@ -0,0 +1,111 @@
+package com.gasstation.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves every entity's id generator past the largest id already in its table.
+ *
+ * <p>On PostgreSQL, V7 does this for the {@code BIGSERIAL} sequences. The h2
+ * and mysql profiles build their schema with ddl-auto instead, and Flyway
+ * cannot help there because it runs before Hibernate creates the tables. A
+ * {@code <table>_id_seq} that Hibernate creates (a sequence on H2, a one-row
+ * table on MySQL) starts at 1 and would hand out ids already taken by rows
+ * from the old AUTO_INCREMENT columns or inserted by hand.
+ *
+ * <p>Runs once the EntityManagerFactory, and with it the schema update, is
+ * ready and before the application draws its first id. Safe to repeat: a
+ * generator that is already ahead is left alone.
+ */
+@Component
+@ConditionalOnProperty(name = "app.persistence.seed-id-generators", havingValue = "true")
+public class IdGeneratorSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    /** Value column of Hibernate's table-backed sequences. */
+    private static final String TABLE_VALUE_COLUMN = "next_val";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void seed() throws SQLException {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        SqlStringGenerationContext sqlContext = sessionFactory.getSqlStringGenerationContext();
+        Dialect dialect = sqlContext.getDialect();
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (EntityPersister persister : sessionFactory.getMappingMetamodel().streamEntityDescriptors().toList()) {
+                if (!(persister.getGenerator() instanceof SequenceStyleGenerator generator)
+                        || !(persister instanceof AbstractEntityPersister entity)) {
+                    continue;
+                }
+                DatabaseStructure structure = generator.getDatabaseStructure();
+                String generatorName = sqlContext.format(structure.getPhysicalName());
+                long maxId = queryLong(connection, "SELECT COALESCE(MAX(" + entity.getIdentifierColumnNames()[0]
+                        + "), 0) FROM " + entity.getTableName());
+                boolean moved = structure.isPhysicalSequence()
+                        ? seedSequence(connection, dialect, generatorName, maxId)
+                        : seedTable(connection, generatorName, maxId);
+                if (moved) {
+                    logger.info("Id generator {} moved past existing id {}", generatorName, maxId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws one value to see where the sequence stands. The block behind it is
+     * given up either way, which costs at most one increment of ids.
+     */
+    private static boolean seedSequence(Connection connection, Dialect dialect, String sequence, long maxId)
+            throws SQLException {
+        long next = queryLong(connection, dialect.getSequenceSupport().getSequenceNextValString(sequence));
+        if (next > maxId) {
+            return false;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+        }
+        return true;
+    }
+
+    private static boolean seedTable(Connection connection, String table, long maxId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE " + table + " SET " + TABLE_VALUE_COLUMN + " = ? WHERE " + TABLE_VALUE_COLUMN + " <= ?")) {
+            statement.setLong(1, maxId + 1);
+            statement.setLong(2, maxId);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.http.HttpStatus;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Arrays;
@@ -74,10 +75,14 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .exceptionHandling(exception -> exception.authenticationEntryPoint(authenticationEntryPoint()))
             .authorizeHttpRequests(auth -> auth
+                // Completion of an already authorized stream (SSE); the JWT filter does not run again
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/prometheus").permitAll()
                 .requestMatchers("/error").permitAll()
                 
                 // Admin only endpoints
@@ -91,6 +96,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/fuel/**").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers("/api/lottery/**").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers("/api/inventory/**").hasAnyRole("ADMIN", "MANAGER")
+                .requestMatchers("/api/reports/dashboard").hasAnyRole("ADMIN", "MANAGER", "CASHIER")
                 .requestMatchers("/api/reports/**").hasAnyRole("ADMIN", "MANAGER")
                 
                 // All authenticated users
@@ -0,0 +1,536 @@
+package com.gasstation.config;
+
+import com.gasstation.entity.*;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.DailySalesRollupRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.UserRepository;
+import com.gasstation.service.SalesRollupService;
+import com.gasstation.service.TransactionNumberGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Backfills months of store history for load testing: sales with their lines,
+ * stock movements, fuel deliveries, counter services and the matching daily
+ * rollups. Activate with the {@code synthetic} profile on top of a database
+ * profile, e.g. {@code --spring.profiles.active=h2,synthetic}; sizes come
+ * from {@code app.synthetic.*}. Runs after {@link DataInitializer} and only
+ * once per database (it skips if its products already exist).
+ *
+ * <p>Shapes are chosen to look like a real store rather than uniform noise:
+ * traffic peaks at the morning and evening commutes and on Fridays and
+ * Saturdays, product popularity is Zipf-distributed, most baskets hold one
+ * or two items, cards dominate payments and about 1.5% of sales are voided
+ * or refunded. Everything derives from {@code app.synthetic.seed}, so two
+ * runs with the same settings produce the same history.
+ */
+@Component
+@Profile("synthetic")
+@Order(2)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    /** Barcode prefix of generated products; also how a previous run is recognised. */
+    private static final String BARCODE_PREFIX = "5";
+
+    private static final int FLUSH_EVERY = 250;
+
+    /** Relative share of sales per hour of day, midnight first. */
+    private static final int[] HOUR_WEIGHTS = {2, 1, 1, 1, 2, 4, 8, 12, 11, 8, 7, 8, 10, 9, 8, 9, 11, 12, 11, 9, 7, 5, 4, 3};
+
+    private static final PaymentMethod[] PAYMENT_METHODS = {
+            PaymentMethod.CREDIT_CARD, PaymentMethod.DEBIT_CARD, PaymentMethod.CASH,
+            PaymentMethod.EBT, PaymentMethod.GIFT_CARD, PaymentMethod.CHECK};
+    private static final int[] PAYMENT_WEIGHTS = {46, 24, 22, 4, 3, 1};
+
+    private static final ServiceType[] SERVICE_TYPES = {
+            ServiceType.BILL_PAY, ServiceType.MONEY_ORDER, ServiceType.CHECK_CASHING, ServiceType.PHONE_CARD,
+            ServiceType.GIFT_CARD_SALE, ServiceType.ATM_FEE, ServiceType.OTHER};
+    private static final int[] SERVICE_WEIGHTS = {30, 20, 10, 10, 15, 12, 3};
+    /** Amount range per service type, in whole dollars (min, max). */
+    private static final int[][] SERVICE_AMOUNTS = {{20, 300}, {50, 1000}, {100, 1500}, {10, 50}, {25, 100}, {2, 4}, {5, 50}};
+
+    private static final String[] FUEL_SUPPLIERS = {"Valero Wholesale", "Shell Distribution", "Marathon Petroleum", "Sunoco LP"};
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRollupRepository rollupRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private TransactionNumberGenerator transactionNumberGenerator;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.synthetic.days:90}")
+    private int days;
+
+    @Value("${app.synthetic.transactions-per-day:1500}")
+    private int transactionsPerDay;
+
+    @Value("${app.synthetic.products:1500}")
+    private int productCount;
+
+    @Value("${app.synthetic.cashiers:12}")
+    private int cashierCount;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    private Random random;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> cashierIds;
+    private Long managerId;
+    private List<ProductInfo> catalog;
+    private ZipfSampler popularity;
+    private final Map<RollupKey, long[]> rollupCounts = new HashMap<>();
+    private final Map<RollupKey, BigDecimal[]> rollupAmounts = new HashMap<>();
+    private final Map<FuelType, LocalDate> nextFuelDelivery = new EnumMap<>(FuelType.class);
+    private final Map<FuelType, BigDecimal> fuelCost = new EnumMap<>(FuelType.class);
+    private long sales;
+    private long lines;
+    private long movements;
+    private long deliveries;
+    private long serviceLogs;
+
+    @Override
+    public void run(String... args) {
+        if (productRepository.existsByBarcode(barcode(0))) {
+            logger.info("Synthetic data already present, skipping generation");
+            return;
+        }
+        random = new Random(seed);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                createStaff();
+                createCatalog();
+            });
+            popularity = new ZipfSampler(catalog.size(), 1.07, random);
+
+            LocalDate first = LocalDate.now().minusDays(days);
+            for (int day = 0; day < days; day++) {
+                LocalDate date = first.plusDays(day);
+                transactionTemplate.executeWithoutResult(status -> generateDay(date));
+                if ((day + 1) % 10 == 0 || day + 1 == days) {
+                    logger.info("Synthetic data: {}/{} days, {} sales, {} lines, {} stock movements",
+                            day + 1, days, sales, lines, movements);
+                }
+            }
+            writeRollups();
+        } finally {
+            AuditingClock.unpin();
+        }
+        logger.info("Synthetic data generated in {} s: {} sales ({} lines), {} stock movements, "
+                        + "{} fuel deliveries, {} service logs over {} days",
+                (System.nanoTime() - started) / 1_000_000_000, sales, lines, movements, deliveries, serviceLogs, days);
+    }
+
+    // Staff and catalog
+
+    private void createStaff() {
+        String password = passwordEncoder.encode("password123");
+        cashierIds = new ArrayList<>(cashierCount);
+        for (int i = 1; i <= cashierCount; i++) {
+            User cashier = new User(String.format("lane%02d", i), String.format("lane%02d@gasstation.com", i),
+                    password, "Lane", String.format("Cashier %02d", i));
+            cashier.setActive(true);
+            cashier.setRoles(new HashSet<>(Set.of(Role.CASHIER)));
+            entityManager.persist(cashier);
+            cashierIds.add(cashier.getId());
+        }
+        User manager = new User("lanemanager", "lanemanager@gasstation.com", password, "Lane", "Manager");
+        manager.setActive(true);
+        manager.setRoles(new HashSet<>(Set.of(Role.MANAGER, Role.CASHIER)));
+        entityManager.persist(manager);
+        managerId = manager.getId();
+    }
+
+    private void createCatalog() {
+        List<Category> categories = categoryRepository.findAll();
+        if (categories.isEmpty()) {
+            Category general = new Category("General", new BigDecimal("8.25"));
+            general.setActive(true);
+            entityManager.persist(general);
+            categories = List.of(general);
+        }
+        for (int i = 0; i < productCount; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            // Log-normal around $3, like a c-store shelf: mostly cheap, a long tail of pricey items
+            double price = Math.min(60.0, Math.max(0.5, Math.exp(Math.log(3.0) + 0.6 * random.nextGaussian())));
+            BigDecimal retail = BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal cost = retail.multiply(BigDecimal.valueOf(0.55 + 0.25 * random.nextDouble()))
+                    .setScale(2, RoundingMode.HALF_UP);
+            Product product = new Product("Synthetic item " + (i + 1), barcode(i), cost, retail, category);
+            // Deep stock so load tests never run a shelf empty
+            product.setCurrentStock(1_000_000);
+            product.setReorderThreshold(10 + random.nextInt(40));
+            product.setActive(true);
+            product.setFoodStampEligible(random.nextInt(3) > 0);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+
+        catalog = new ArrayList<>();
+        for (Product product : productRepository.findAllWithCategory()) {
+            if (Boolean.TRUE.equals(product.getActive())) {
+                BigDecimal taxRate = product.getCategory() == null || product.getCategory().getTaxRate() == null
+                        ? BigDecimal.ZERO : product.getCategory().getTaxRate();
+                catalog.add(new ProductInfo(product.getId(), product.getPrice(), taxRate));
+            }
+        }
+        entityManager.clear();
+    }
+
+    private static String barcode(int index) {
+        return BARCODE_PREFIX + String.format("%011d", index);
+    }
+
+    // One day of history
+
+    private void generateDay(LocalDate date) {
+        int pending = 0;
+
+        int saleCount = (int) Math.round(transactionsPerDay * dayOfWeekFactor(date.getDayOfWeek())
+                * (0.9 + 0.2 * random.nextDouble()));
+        LocalDateTime[] times = new LocalDateTime[saleCount];
+        for (int i = 0; i < saleCount; i++) {
+            times[i] = date.atTime(pick(HOUR_WEIGHTS), random.nextInt(60), random.nextInt(60));
+        }
+        Arrays.sort(times);
+        for (LocalDateTime time : times) {
+            generateSale(time);
+            if (++pending % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        generateStockMovements(date);
+        generateFuelDeliveries(date);
+        generateServiceLogs(date);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static double dayOfWeekFactor(DayOfWeek day) {
+        switch (day) {
+            case MONDAY: return 0.90;
+            case TUESDAY: return 0.85;
+            case WEDNESDAY: return 0.90;
+            case THURSDAY: return 0.95;
+            case FRIDAY: return 1.15;
+            case SATURDAY: return 1.30;
+            default: return 1.00;
+        }
+    }
+
+    private void generateSale(LocalDateTime time) {
+        AuditingClock.pin(time);
+        User cashier = entityManager.getReference(User.class, cashierFor(time));
+        PaymentMethod paymentMethod = PAYMENT_METHODS[pick(PAYMENT_WEIGHTS)];
+        Transaction transaction = new Transaction(transactionNumberGenerator.next(), cashier, paymentMethod);
+        transaction.setTransactionDate(time);
+
+        double outcome = random.nextDouble();
+        transaction.setStatus(outcome < 0.012 ? TransactionStatus.CANCELLED
+                : outcome < 0.015 ? TransactionStatus.REFUNDED : TransactionStatus.COMPLETED);
+
+        // Most baskets are one or two items; each extra item is less likely
+        int basketSize = 1;
+        while (basketSize < 20 && random.nextDouble() < 0.45) {
+            basketSize++;
+        }
+        Set<Integer> chosen = new HashSet<>();
+        List<TransactionItem> items = new ArrayList<>(basketSize);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal tax = BigDecimal.ZERO;
+        long units = 0;
+        for (int i = 0; i < basketSize; i++) {
+            int index = popularity.next();
+            if (!chosen.add(index)) {
+                continue;
+            }
+            ProductInfo info = catalog.get(index);
+            double roll = random.nextDouble();
+            int quantity = roll < 0.80 ? 1 : roll < 0.95 ? 2 : 3 + random.nextInt(4);
+            TransactionItem item = new TransactionItem(quantity, info.price,
+                    entityManager.getReference(Product.class, info.id), transaction);
+            BigDecimal lineTotal = info.price.multiply(BigDecimal.valueOf(quantity));
+            item.setTotalPrice(lineTotal);
+            items.add(item);
+            subtotal = subtotal.add(lineTotal);
+            tax = tax.add(lineTotal.multiply(info.taxRate).divide(BigDecimal.valueOf(100)));
+            units += quantity;
+        }
+        tax = tax.setScale(2, RoundingMode.HALF_UP);
+        transaction.setItems(items);
+        transaction.setSubtotal(subtotal);
+        transaction.setTaxAmount(tax);
+        transaction.setDiscountAmount(BigDecimal.ZERO);
+        transaction.setTotalAmount(subtotal.add(tax));
+        entityManager.persist(transaction);
+        sales++;
+        lines += items.size();
+
+        if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+            for (TransactionItem item : items) {
+                InventoryTransaction movement = new InventoryTransaction(
+                        InventoryTransactionType.SALE, item.getQuantity(), item.getProduct(), cashier);
+                movement.setNotes("Sale transaction " + transaction.getTransactionNumber());
+                entityManager.persist(movement);
+                movements++;
+            }
+            addToRollup(time.toLocalDate(), paymentMethod, 1, units, subtotal, tax, transaction.getTotalAmount(), 0, BigDecimal.ZERO);
+        } else if (SalesRollupService.isVoid(transaction.getStatus())) {
+            // Voided or refunded after completing: only the void columns keep a trace
+            addToRollup(time.toLocalDate(), paymentMethod, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                    1, transaction.getTotalAmount());
+        }
+    }
+
+    /** Three eight-hour shifts, each staffed by its own slice of the cashiers. */
+    private Long cashierFor(LocalDateTime time) {
+        int shift = time.getHour() < 6 ? 2 : time.getHour() < 14 ? 0 : time.getHour() < 22 ? 1 : 2;
+        int perShift = Math.max(1, cashierIds.size() / 3);
+        int index = Math.min(cashierIds.size() - 1, shift * perShift + random.nextInt(perShift));
+        return cashierIds.get(index);
+    }
+
+    private void generateStockMovements(LocalDate date) {
+        User manager = entityManager.getReference(User.class, managerId);
+        boolean auditDay = date.getDayOfMonth() == 1;
+        for (ProductInfo info : catalog) {
+            InventoryTransactionType type = null;
+            int quantity = 0;
+            double roll = random.nextDouble();
+            if (roll < 1.0 / 7) {
+                // Roughly weekly vendor restock, in case-pack multiples
+                type = InventoryTransactionType.RECEIVE;
+                quantity = 12 * (2 + random.nextInt(11));
+            } else if (roll < 1.0 / 7 + 0.002) {
+                type = InventoryTransactionType.DAMAGE;
+                quantity = 1 + random.nextInt(3);
+            } else if (auditDay && random.nextDouble() < 0.05) {
+                type = InventoryTransactionType.AUDIT;
+                quantity = 1 + random.nextInt(5);
+            }
+            if (type == null) {
+                continue;
+            }
+            AuditingClock.pin(date.atTime(6 + random.nextInt(4), random.nextInt(60)));
+            InventoryTransaction movement = new InventoryTransaction(type, quantity,
+                    entityManager.getReference(Product.class, info.id), manager);
+            entityManager.persist(movement);
+            movements++;
+        }
+    }
+
+    private void generateFuelDeliveries(LocalDate date) {
+        User manager = entityManager.getReference(User.class, managerId);
+        for (FuelType fuelType : FuelType.values()) {
+            BigDecimal cost = fuelCost.computeIfAbsent(fuelType, SyntheticDataGenerator::baseFuelCost);
+            // Wholesale prices drift a little every day
+            cost = cost.multiply(BigDecimal.valueOf(1 + 0.01 * random.nextGaussian())).setScale(3, RoundingMode.HALF_UP);
+            fuelCost.put(fuelType, cost);
+
+            LocalDate due = nextFuelDelivery.getOrDefault(fuelType, date);
+            if (date.isBefore(due)) {
+                continue;
+            }
+            boolean lowVolume = fuelType == FuelType.E85 || fuelType == FuelType.PREMIUM_93;
+            double gallons = Math.min(9500, Math.max(3000, (lowVolume ? 4000 : 6500) + 1200 * random.nextGaussian()));
+            LocalDateTime time = date.atTime(5 + random.nextInt(6), random.nextInt(60));
+            AuditingClock.pin(time);
+            FuelDelivery delivery = new FuelDelivery(fuelType, BigDecimal.valueOf(gallons).setScale(2, RoundingMode.HALF_UP),
+                    cost, manager);
+            delivery.setTotalCost(delivery.getGallons().multiply(cost).setScale(2, RoundingMode.HALF_UP));
+            delivery.setDeliveryDate(time);
+            delivery.setSupplierName(FUEL_SUPPLIERS[random.nextInt(FUEL_SUPPLIERS.length)]);
+            delivery.setDeliveryTicketNumber(String.format("BOL-%s-%d", date, fuelType.ordinal()));
+            entityManager.persist(delivery);
+            deliveries++;
+            nextFuelDelivery.put(fuelType, date.plusDays(lowVolume ? 7 + random.nextInt(4) : 2 + random.nextInt(3)));
+        }
+    }
+
+    private static BigDecimal baseFuelCost(FuelType fuelType) {
+        switch (fuelType) {
+            case REGULAR_87: return new BigDecimal("2.450");
+            case MIDGRADE_89: return new BigDecimal("2.800");
+            case PREMIUM_91: return new BigDecimal("3.100");
+            case PREMIUM_93: return new BigDecimal("3.250");
+            case DIESEL: return new BigDecimal("2.950");
+            default: return new BigDecimal("2.200");
+        }
+    }
+
+    private void generateServiceLogs(LocalDate date) {
+        int count = poisson(8 * dayOfWeekFactor(date.getDayOfWeek()));
+        for (int i = 0; i < count; i++) {
+            int type = pick(SERVICE_WEIGHTS);
+            int[] range = SERVICE_AMOUNTS[type];
+            BigDecimal amount = BigDecimal.valueOf(range[0] + random.nextDouble() * (range[1] - range[0]))
+                    .setScale(2, RoundingMode.HALF_UP);
+            LocalDateTime time = date.atTime(8 + random.nextInt(12), random.nextInt(60));
+            AuditingClock.pin(time);
+            ServiceLog log = new ServiceLog(SERVICE_TYPES[type], amount,
+                    entityManager.getReference(User.class, cashierFor(time)));
+            log.setServiceDate(time);
+            entityManager.persist(log);
+            serviceLogs++;
+        }
+    }
+
+    // Rollups
+
+    private void addToRollup(LocalDate date, PaymentMethod paymentMethod, long transactions, long items,
+                             BigDecimal subtotal, BigDecimal tax, BigDecimal total, long voids, BigDecimal voidAmount) {
+        RollupKey key = new RollupKey(date, paymentMethod);
+        long[] counts = rollupCounts.computeIfAbsent(key, k -> new long[3]);
+        counts[0] += transactions;
+        counts[1] += items;
+        counts[2] += voids;
+        BigDecimal[] amounts = rollupAmounts.computeIfAbsent(key,
+                k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+        amounts[0] = amounts[0].add(subtotal);
+        amounts[1] = amounts[1].add(tax);
+        amounts[2] = amounts[2].add(total);
+        amounts[3] = amounts[3].add(voidAmount);
+    }
+
+    private void writeRollups() {
+        AuditingClock.unpin();
+        for (RollupKey key : rollupCounts.keySet()) {
+            salesRollupService.ensureRow(key.date, key.paymentMethod);
+        }
+        transactionTemplate.executeWithoutResult(status -> rollupCounts.forEach((key, counts) -> {
+            BigDecimal[] amounts = rollupAmounts.get(key);
+            rollupRepository.applyDelta(key.date, key.paymentMethod, counts[0], counts[1],
+                    amounts[0], amounts[1], BigDecimal.ZERO, amounts[2], counts[2], amounts[3]);
+        }));
+    }
+
+    // Sampling helpers
+
+    private int pick(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private int poisson(double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Draws catalog indexes so that the k-th most popular product sells about
+     * 1/k^s as often as the best seller. Popularity ranks are shuffled over the
+     * catalog so best sellers are not simply the lowest ids.
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+        private final int[] byRank;
+        private final Random random;
+
+        ZipfSampler(int size, double exponent, Random random) {
+            this.random = random;
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= sum;
+            }
+            byRank = new int[size];
+            for (int i = 0; i < size; i++) {
+                byRank[i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = byRank[i];
+                byRank[i] = byRank[j];
+                byRank[j] = swap;
+            }
+        }
+
+        int next() {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            return byRank[Math.min(rank, byRank.length - 1)];
+        }
+    }
+
+    private record ProductInfo(Long id, BigDecimal price, BigDecimal taxRate) {
+    }
+
+    private record RollupKey(LocalDate date, PaymentMethod paymentMethod) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.gasstation.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedNameParser;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names each entity's id sequence {@code <table>_id_seq}.
+ *
+ * <p>That is the name PostgreSQL gave the {@code BIGSERIAL} sequences created
+ * by V1, so the pooled generators in {@link com.gasstation.entity.BaseEntity}
+ * keep drawing from the existing sequences instead of starting new ones at 1.
+ * On MySQL, which has no sequences, Hibernate uses a one-row table with the
+ * same name.
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    static final String SUFFIX = "_id_seq";
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String name = sequenceName(configValues);
+        return new QualifiedSequenceName(catalogName, schemaName, toIdentifier(name, serviceRegistry));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String name = sequenceName(configValues);
+        return new QualifiedNameParser.NameParts(catalogName, schemaName, toIdentifier(name, serviceRegistry));
+    }
+
+    private static String sequenceName(Map<?, ?> configValues) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (table == null) {
+            throw new IllegalStateException("Id generator is not bound to a table");
+        }
+        // The table name arrives quoted only under globally_quoted_identifiers
+        return Identifier.toIdentifier(table).getText() + SUFFIX;
+    }
+
+    private static Identifier toIdentifier(String name, ServiceRegistry serviceRegistry) {
+        return serviceRegistry.getService(JdbcEnvironment.class).getIdentifierHelper().toIdentifier(name);
+    }
+}
@@ -4,6 +4,7 @@ import com.gasstation.dto.JwtResponse;
 import com.gasstation.dto.LoginRequest;
 import com.gasstation.security.JwtUtils;
 import com.gasstation.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +26,7 @@ public class AuthController {
     private JwtUtils jwtUtils;
 
     @PostMapping("/signin")
+    @Timed("pos.login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         
         Authentication authentication = authenticationManager.authenticate(
@@ -0,0 +1,32 @@
+package com.gasstation.controller;
+
+import com.gasstation.dto.CatalogChanges;
+import com.gasstation.service.CatalogSyncService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/catalog")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CatalogController {
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    /**
+     * What changed in the catalog since {@code since}, the watermark of the
+     * lane's previous sync. Without it, the whole catalog.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Timed("pos.catalog.sync")
+    public CatalogChanges getChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return catalogSyncService.changesSince(since);
+    }
+}
@@ -1,12 +1,16 @@
 package com.gasstation.controller;
 
+import com.gasstation.entity.CatalogEntityType;
 import com.gasstation.entity.Category;
-import com.gasstation.repository.CategoryRepository;
+import com.gasstation.service.CatalogService;
+import com.gasstation.service.CatalogVersions;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,49 +21,45 @@ import java.util.Optional;
 public class CategoryController {
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CatalogService catalogService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Timed(value = "pos.list", extraTags = {"resource", "categories"})
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(CatalogEntityType.CATEGORY),
+                catalogService::findAllCategories);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        Optional<Category> category = categoryRepository.findById(id);
+        Optional<Category> category = catalogService.findCategory(id);
         return category.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public Category createCategory(@Valid @RequestBody Category category) {
-        return categoryRepository.save(category);
+        return catalogService.createCategory(category);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<Category> updateCategory(@PathVariable Long id, @Valid @RequestBody Category categoryDetails) {
-        Optional<Category> categoryOptional = categoryRepository.findById(id);
-        
-        if (categoryOptional.isPresent()) {
-            Category category = categoryOptional.get();
-            category.setName(categoryDetails.getName());
-            category.setTaxRate(categoryDetails.getTaxRate());
-            return ResponseEntity.ok(categoryRepository.save(category));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<Category> category = catalogService.updateCategory(id, categoryDetails);
+        return category.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
-        if (categoryRepository.existsById(id)) {
-            categoryRepository.deleteById(id);
+        if (catalogService.deleteCategory(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+}
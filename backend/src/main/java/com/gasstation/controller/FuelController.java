@@ -1,14 +1,21 @@
 package com.gasstation.controller;
 
+import com.gasstation.dto.FuelDeliverySummary;
+import com.gasstation.dto.FuelPriceSummary;
+import com.gasstation.entity.CatalogEntityType;
 import com.gasstation.entity.FuelDelivery;
 import com.gasstation.entity.FuelPrice;
-import com.gasstation.repository.FuelDeliveryRepository;
-import com.gasstation.repository.FuelPriceRepository;
+import com.gasstation.security.UserPrincipal;
+import com.gasstation.service.CatalogVersions;
+import com.gasstation.service.FuelService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,17 +26,18 @@ import java.util.Optional;
 public class FuelController {
 
     @Autowired
-    private FuelDeliveryRepository fuelDeliveryRepository;
+    private FuelService fuelService;
 
     @Autowired
-    private FuelPriceRepository fuelPriceRepository;
+    private CatalogVersions catalogVersions;
 
     // Fuel Deliveries
     @GetMapping("/deliveries")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<FuelDelivery>> getAllFuelDeliveries() {
+    @Timed(value = "pos.list", extraTags = {"resource", "fuel-deliveries"})
+    public ResponseEntity<List<FuelDeliverySummary>> getAllFuelDeliveries() {
         try {
-            List<FuelDelivery> deliveries = fuelDeliveryRepository.findAll();
+            List<FuelDeliverySummary> deliveries = fuelService.findAllDeliveries();
             return ResponseEntity.ok(deliveries);
         } catch (Exception e) {
             e.printStackTrace();
@@ -39,41 +47,28 @@ public class FuelController {
 
     @GetMapping("/deliveries/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<FuelDelivery> getFuelDeliveryById(@PathVariable Long id) {
-        Optional<FuelDelivery> delivery = fuelDeliveryRepository.findById(id);
+    public ResponseEntity<FuelDeliverySummary> getFuelDeliveryById(@PathVariable Long id) {
+        Optional<FuelDeliverySummary> delivery = fuelService.findDelivery(id);
         return delivery.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/deliveries")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public FuelDelivery createFuelDelivery(@Valid @RequestBody FuelDelivery delivery) {
-        return fuelDeliveryRepository.save(delivery);
+        return fuelService.createDelivery(delivery, currentUserId());
     }
 
     @PutMapping("/deliveries/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<FuelDelivery> updateFuelDelivery(@PathVariable Long id, @Valid @RequestBody FuelDelivery deliveryDetails) {
-        Optional<FuelDelivery> deliveryOptional = fuelDeliveryRepository.findById(id);
-        
-        if (deliveryOptional.isPresent()) {
-            FuelDelivery delivery = deliveryOptional.get();
-            delivery.setFuelType(deliveryDetails.getFuelType());
-            delivery.setGallons(deliveryDetails.getGallons());
-            delivery.setDeliveryDate(deliveryDetails.getDeliveryDate());
-            delivery.setCostPerGallon(deliveryDetails.getCostPerGallon());
-            delivery.setSupplierName(deliveryDetails.getSupplierName());
-            delivery.setDeliveryTicketNumber(deliveryDetails.getDeliveryTicketNumber());
-            return ResponseEntity.ok(fuelDeliveryRepository.save(delivery));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<FuelDelivery> delivery = fuelService.updateDelivery(id, deliveryDetails);
+        return delivery.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/deliveries/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteFuelDelivery(@PathVariable Long id) {
-        if (fuelDeliveryRepository.existsById(id)) {
-            fuelDeliveryRepository.deleteById(id);
+        if (fuelService.deleteDelivery(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -82,10 +77,11 @@ public class FuelController {
     // Fuel Prices
     @GetMapping("/prices")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<List<FuelPrice>> getAllFuelPrices() {
+    @Timed(value = "pos.list", extraTags = {"resource", "fuel-prices"})
+    public ResponseEntity<List<FuelPriceSummary>> getAllFuelPrices(WebRequest request) {
         try {
-            List<FuelPrice> prices = fuelPriceRepository.findAll();
-            return ResponseEntity.ok(prices);
+            return ConditionalGet.respond(request, catalogVersions.etag(CatalogEntityType.FUEL_PRICE),
+                    fuelService::findAllPrices);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -94,39 +90,33 @@ public class FuelController {
 
     @GetMapping("/prices/current")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public List<FuelPrice> getCurrentFuelPrices() {
-        return fuelPriceRepository.findAll();
+    public List<FuelPriceSummary> getCurrentFuelPrices() {
+        return fuelService.findCurrentPrices();
     }
 
     @PostMapping("/prices")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public FuelPrice createFuelPrice(@Valid @RequestBody FuelPrice price) {
-        return fuelPriceRepository.save(price);
+        return fuelService.createPrice(price, currentUserId());
     }
 
     @PutMapping("/prices/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<FuelPrice> updateFuelPrice(@PathVariable Long id, @Valid @RequestBody FuelPrice priceDetails) {
-        Optional<FuelPrice> priceOptional = fuelPriceRepository.findById(id);
-        
-        if (priceOptional.isPresent()) {
-            FuelPrice price = priceOptional.get();
-            price.setFuelType(priceDetails.getFuelType());
-            price.setPricePerGallon(priceDetails.getPricePerGallon());
-            price.setEffectiveDate(priceDetails.getEffectiveDate());
-            return ResponseEntity.ok(fuelPriceRepository.save(price));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<FuelPrice> price = fuelService.updatePrice(id, priceDetails, currentUserId());
+        return price.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/prices/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteFuelPrice(@PathVariable Long id) {
-        if (fuelPriceRepository.existsById(id)) {
-            fuelPriceRepository.deleteById(id);
+        if (fuelService.deletePrice(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+
+    private static Long currentUserId() {
+        return ((UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
+}
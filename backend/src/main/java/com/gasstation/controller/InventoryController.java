@@ -1,14 +1,20 @@
 package com.gasstation.controller;
 
 import com.gasstation.entity.InventoryTransaction;
-import com.gasstation.repository.InventoryTransactionRepository;
+import com.gasstation.security.UserPrincipal;
+import com.gasstation.service.InsufficientStockException;
+import com.gasstation.service.InventoryService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,52 +23,52 @@ import java.util.Optional;
 public class InventoryController {
 
     @Autowired
-    private InventoryTransactionRepository inventoryTransactionRepository;
+    private InventoryService inventoryService;
 
     @GetMapping("/transactions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Timed(value = "pos.list", extraTags = {"resource", "inventory"})
     public List<InventoryTransaction> getAllInventoryTransactions() {
-        return inventoryTransactionRepository.findAll();
+        return inventoryService.findAll();
     }
 
     @GetMapping("/transactions/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<InventoryTransaction> getInventoryTransactionById(@PathVariable Long id) {
-        Optional<InventoryTransaction> transaction = inventoryTransactionRepository.findById(id);
+        Optional<InventoryTransaction> transaction = inventoryService.findById(id);
         return transaction.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/transactions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public InventoryTransaction createInventoryTransaction(@Valid @RequestBody InventoryTransaction transaction) {
-        return inventoryTransactionRepository.save(transaction);
+    public ResponseEntity<?> createInventoryTransaction(@Valid @RequestBody InventoryTransaction transaction) {
+        try {
+            return ResponseEntity.ok(inventoryService.create(transaction, currentUserId()));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Insufficient stock", "productIds", e.getProductIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PutMapping("/transactions/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<InventoryTransaction> updateInventoryTransaction(@PathVariable Long id, @Valid @RequestBody InventoryTransaction transactionDetails) {
-        Optional<InventoryTransaction> transactionOptional = inventoryTransactionRepository.findById(id);
-        
-        if (transactionOptional.isPresent()) {
-            InventoryTransaction transaction = transactionOptional.get();
-            transaction.setProduct(transactionDetails.getProduct());
-            transaction.setTransactionType(transactionDetails.getTransactionType());
-            transaction.setQuantity(transactionDetails.getQuantity());
-
-            transaction.setNotes(transactionDetails.getNotes());
-            return ResponseEntity.ok(inventoryTransactionRepository.save(transaction));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<InventoryTransaction> transaction = inventoryService.update(id, transactionDetails);
+        return transaction.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/transactions/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteInventoryTransaction(@PathVariable Long id) {
-        if (inventoryTransactionRepository.existsById(id)) {
-            inventoryTransactionRepository.deleteById(id);
+        if (inventoryService.delete(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+
+    private static Long currentUserId() {
+        return ((UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
+}
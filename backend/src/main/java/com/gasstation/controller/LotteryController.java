@@ -1,12 +1,17 @@
 package com.gasstation.controller;
 
+import com.gasstation.dto.LotteryGameSummary;
+import com.gasstation.entity.CatalogEntityType;
 import com.gasstation.entity.LotteryGame;
-import com.gasstation.repository.LotteryGameRepository;
+import com.gasstation.service.CatalogVersions;
+import com.gasstation.service.LotteryService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,58 +22,50 @@ import java.util.Optional;
 public class LotteryController {
 
     @Autowired
-    private LotteryGameRepository lotteryGameRepository;
+    private LotteryService lotteryService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public List<LotteryGame> getAllLotteryGames() {
-        return lotteryGameRepository.findAll();
+    @Timed(value = "pos.list", extraTags = {"resource", "lottery"})
+    public ResponseEntity<List<LotteryGameSummary>> getAllLotteryGames(WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(CatalogEntityType.LOTTERY_GAME),
+                lotteryService::findAll);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<LotteryGame> getLotteryGameById(@PathVariable Long id) {
-        Optional<LotteryGame> game = lotteryGameRepository.findById(id);
+    public ResponseEntity<LotteryGameSummary> getLotteryGameById(@PathVariable Long id) {
+        Optional<LotteryGameSummary> game = lotteryService.findById(id);
         return game.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/barcode/{barcode}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<LotteryGame> getLotteryGameByBarcode(@PathVariable String barcode) {
-        Optional<LotteryGame> game = lotteryGameRepository.findByBarcode(barcode);
+    public ResponseEntity<LotteryGameSummary> getLotteryGameByBarcode(@PathVariable String barcode) {
+        Optional<LotteryGameSummary> game = lotteryService.findByBarcode(barcode);
         return game.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public LotteryGame createLotteryGame(@Valid @RequestBody LotteryGame game) {
-        return lotteryGameRepository.save(game);
+        return lotteryService.create(game);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<LotteryGame> updateLotteryGame(@PathVariable Long id, @Valid @RequestBody LotteryGame gameDetails) {
-        Optional<LotteryGame> gameOptional = lotteryGameRepository.findById(id);
-        
-        if (gameOptional.isPresent()) {
-            LotteryGame game = gameOptional.get();
-            game.setName(gameDetails.getName());
-            game.setBarcode(gameDetails.getBarcode());
-            game.setTicketPrice(gameDetails.getTicketPrice());
-            game.setPackCount(gameDetails.getPackCount());
-            game.setCurrentStock(gameDetails.getCurrentStock());
-            game.setActive(gameDetails.getActive());
-            return ResponseEntity.ok(lotteryGameRepository.save(game));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<LotteryGame> game = lotteryService.update(id, gameDetails);
+        return game.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteLotteryGame(@PathVariable Long id) {
-        if (lotteryGameRepository.existsById(id)) {
-            lotteryGameRepository.deleteById(id);
+        if (lotteryService.delete(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -77,17 +74,11 @@ public class LotteryController {
     @PostMapping("/{id}/sell/{quantity}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
     public ResponseEntity<LotteryGame> sellTickets(@PathVariable Long id, @PathVariable Integer quantity) {
-        Optional<LotteryGame> gameOptional = lotteryGameRepository.findById(id);
-        
-        if (gameOptional.isPresent()) {
-            LotteryGame game = gameOptional.get();
-            if (game.getCurrentStock() < quantity) {
-                return ResponseEntity.badRequest().build(); // Not enough stock
-            }
-            game.setCurrentStock(game.getCurrentStock() - quantity);
-            return ResponseEntity.ok(lotteryGameRepository.save(game));
+        try {
+            Optional<LotteryGame> game = lotteryService.sellTickets(id, quantity);
+            return game.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // Not enough stock
         }
-        
-        return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+}
@@ -1,22 +1,36 @@
 package com.gasstation.controller;
 
+import com.gasstation.dto.CartPriceRequest;
+import com.gasstation.dto.CheckoutRequest;
+import com.gasstation.dto.OfflineBatchRequest;
+import com.gasstation.dto.OfflineBatchResult;
+import com.gasstation.dto.ScanResult;
+import com.gasstation.dto.TransactionPage;
+import com.gasstation.dto.TransactionSummary;
 import com.gasstation.entity.Transaction;
-import com.gasstation.entity.TransactionItem;
-import com.gasstation.entity.User;
-import com.gasstation.repository.TransactionRepository;
-import com.gasstation.repository.ProductRepository;
-import com.gasstation.repository.UserRepository;
+import com.gasstation.entity.TransactionStatus;
 import com.gasstation.security.UserPrincipal;
+import com.gasstation.service.CheckoutService;
+import com.gasstation.service.IdempotencyKeyConflictException;
+import com.gasstation.service.IdempotencyStore;
+import com.gasstation.service.InsufficientStockException;
+import com.gasstation.service.OfflineIngestService;
+import com.gasstation.service.PosService;
+import com.gasstation.service.PromotionEngine;
+import com.gasstation.service.TransactionQueryService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -25,20 +39,43 @@ import java.util.Optional;
 public class POSController {
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private PosService posService;
 
     @Autowired
-    private ProductRepository productRepository;
-    
+    private TransactionQueryService transactionQueryService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
     @Autowired
-    private UserRepository userRepository;
+    private OfflineIngestService offlineIngestService;
+
+    @GetMapping("/scan/{barcode}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Timed("pos.barcode.lookup")
+    public ResponseEntity<ScanResult> scan(@PathVariable String barcode) {
+        Optional<ScanResult> result = posService.scan(barcode);
+        return result.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
 
     @GetMapping("/transactions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
+    @Timed(value = "pos.list", extraTags = {"resource", "transactions"})
+    public ResponseEntity<TransactionPage> getAllTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long cashierId,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transactions = transactionRepository.findAllWithItemsAndProducts();
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = transactionQueryService.findPage(from, to, cashierId, status, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -47,105 +84,110 @@ public class POSController {
 
     @GetMapping("/transactions/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
-        Optional<Transaction> transaction = transactionRepository.findByIdWithItemsAndProducts(id);
+    public ResponseEntity<TransactionSummary> getTransactionById(@PathVariable Long id) {
+        Optional<TransactionSummary> transaction = transactionQueryService.findById(id);
         return transaction.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Lanes should send an {@code Idempotency-Key} (any unique string per sale,
+     * up to 100 characters) and reuse it when they retry after a timeout; the
+     * retry then gets the original receipt with {@code Idempotent-Replayed: true}.
+     */
     @PostMapping("/transactions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public Transaction createTransaction(@Valid @RequestBody Transaction transaction) {
+    @Timed("pos.checkout")
+    public ResponseEntity<?> createTransaction(@Valid @RequestBody CheckoutRequest checkoutRequest,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         // Get current authenticated user and set as cashier
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        User currentUser = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
-        transaction.setCashier(currentUser);
-        
-        // Generate transaction number if not provided
-        if (transaction.getTransactionNumber() == null || transaction.getTransactionNumber().isEmpty()) {
-            String transactionNumber = generateTransactionNumber();
-            transaction.setTransactionNumber(transactionNumber);
+
+        try {
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(checkoutService.checkout(checkoutRequest, userPrincipal.getId()));
+            }
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyStore.MAX_KEY_LENGTH) {
+                return ResponseEntity.badRequest().body(Map.of("error",
+                        "Idempotency-Key must be 1 to " + IdempotencyStore.MAX_KEY_LENGTH + " characters"));
+            }
+            IdempotencyStore.Outcome outcome = checkoutService.checkout(checkoutRequest, userPrincipal.getId(), idempotencyKey);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.receipt());
+        } catch (IdempotencyKeyConflictException e) {
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (InsufficientStockException e) {
+            return insufficientStock(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        
-        // Calculate totals
-        calculateTransactionTotals(transaction);
-        return transactionRepository.save(transaction);
     }
 
-    @PutMapping("/transactions/{id}")
+    /**
+     * Store-and-forward upload of sales a lane captured while offline. Answers
+     * 429 with Retry-After when the server is already storing as many batches
+     * as it allows.
+     */
+    @PostMapping("/transactions/offline")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<Transaction> updateTransaction(@PathVariable Long id, @Valid @RequestBody Transaction transactionDetails) {
-        Optional<Transaction> transactionOptional = transactionRepository.findById(id);
-        
-        if (transactionOptional.isPresent()) {
-            Transaction transaction = transactionOptional.get();
-            transaction.setItems(transactionDetails.getItems());
-            transaction.setPaymentMethod(transactionDetails.getPaymentMethod());
-            transaction.setStatus(transactionDetails.getStatus());
-            calculateTransactionTotals(transaction);
-            return ResponseEntity.ok(transactionRepository.save(transaction));
+    @Timed("pos.offline.ingest")
+    public ResponseEntity<?> ingestOfflineTransactions(@Valid @RequestBody OfflineBatchRequest batch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            Optional<OfflineBatchResult> result = offlineIngestService.ingest(batch.getTransactions(), userPrincipal.getId());
+            return result.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "2").build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
         }
-        
-        return ResponseEntity.notFound().build();
     }
 
-    @PostMapping("/transactions/{id}/complete")
+    @PostMapping("/price-cart")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<Transaction> completeTransaction(@PathVariable Long id) {
-        Optional<Transaction> transactionOptional = transactionRepository.findById(id);
-        
-        if (transactionOptional.isPresent()) {
-            Transaction transaction = transactionOptional.get();
-            transaction.setStatus(com.gasstation.entity.TransactionStatus.COMPLETED);
-            return ResponseEntity.ok(transactionRepository.save(transaction));
+    @Timed("pos.price.cart")
+    public ResponseEntity<?> priceCart(@Valid @RequestBody CartPriceRequest request) {
+        try {
+            return ResponseEntity.ok(promotionEngine.priceCart(request.getItems()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        
-        return ResponseEntity.notFound().build();
     }
 
-    @PostMapping("/transactions/{id}/void")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Transaction> voidTransaction(@PathVariable Long id) {
-        Optional<Transaction> transactionOptional = transactionRepository.findById(id);
-        
-        if (transactionOptional.isPresent()) {
-            Transaction transaction = transactionOptional.get();
-            transaction.setStatus(com.gasstation.entity.TransactionStatus.CANCELLED);
-            return ResponseEntity.ok(transactionRepository.save(transaction));
+    @PutMapping("/transactions/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    public ResponseEntity<?> updateTransaction(@PathVariable Long id, @Valid @RequestBody Transaction transactionDetails) {
+        try {
+            Optional<TransactionSummary> transaction = posService.updateTransaction(id, transactionDetails);
+            return transaction.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        } catch (InsufficientStockException e) {
+            return insufficientStock(e);
         }
-        
-        return ResponseEntity.notFound().build();
     }
 
-
-
-    private void calculateTransactionTotals(Transaction transaction) {
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal taxAmount = BigDecimal.ZERO;
-        
-        for (TransactionItem item : transaction.getItems()) {
-            BigDecimal itemTotal = item.getUnitPrice().multiply(new BigDecimal(item.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
-            
-            // Calculate tax if product has tax rate
-            if (item.getProduct() != null && item.getProduct().getCategory() != null) {
-                BigDecimal taxRate = item.getProduct().getCategory().getTaxRate();
-                if (taxRate != null) {
-                    BigDecimal itemTax = itemTotal.multiply(taxRate.divide(new BigDecimal("100")));
-                    taxAmount = taxAmount.add(itemTax);
-                }
-            }
+    @PostMapping("/transactions/{id}/complete")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    public ResponseEntity<?> completeTransaction(@PathVariable Long id) {
+        try {
+            Optional<TransactionSummary> transaction = posService.completeTransaction(id);
+            return transaction.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        } catch (InsufficientStockException e) {
+            return insufficientStock(e);
         }
-        
-        transaction.setSubtotal(subtotal);
-        transaction.setTaxAmount(taxAmount);
-        transaction.setTotalAmount(subtotal.add(taxAmount));
     }
 
-    private String generateTransactionNumber() {
-        // Generate a unique transaction number based on current timestamp
-        long timestamp = System.currentTimeMillis();
-        return "TXN-" + String.valueOf(timestamp).substring(6); // Use last 7 digits for shorter number
+    @PostMapping("/transactions/{id}/void")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<TransactionSummary> voidTransaction(@PathVariable Long id) {
+        Optional<TransactionSummary> transaction = posService.voidTransaction(id);
+        return transaction.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<?> insufficientStock(InsufficientStockException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Insufficient stock", "productIds", e.getProductIds()));
     }
-} 
\ No newline at end of file
+}
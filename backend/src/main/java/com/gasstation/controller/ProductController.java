@@ -1,14 +1,34 @@
 package com.gasstation.controller;
 
+import com.gasstation.dto.ProductImportResult;
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.entity.CatalogEntityType;
 import com.gasstation.entity.Product;
-import com.gasstation.repository.ProductRepository;
+import com.gasstation.service.BarcodeIndex;
+import com.gasstation.service.CatalogService;
+import com.gasstation.service.CatalogVersions;
+import com.gasstation.service.LowStockTracker;
+import com.gasstation.service.ProductImportService;
+import com.gasstation.service.ProductSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,68 +37,125 @@ import java.util.Optional;
 public class ProductController {
 
     @Autowired
-    private ProductRepository productRepository;
+    private CatalogService catalogService;
 
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    /**
+     * Revalidated against catalog edits only. Sales do not change the ETag, so
+     * the stock figures of a list answered with 304 may be older than the last
+     * sale; {@code /low-stock} and the scan endpoints carry live stock.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Timed(value = "pos.list", extraTags = {"resource", "products"})
+    public ResponseEntity<List<ProductSummary>> getAllProducts(WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(CatalogEntityType.PRODUCT, CatalogEntityType.CATEGORY),
+                catalogService::findAllProducts);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Optional<Product> product = productRepository.findById(id);
+    public ResponseEntity<ProductSummary> getProductById(@PathVariable Long id) {
+        Optional<ProductSummary> product = catalogService.findProduct(id);
         return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/barcode/{barcode}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<Product> getProductByBarcode(@PathVariable String barcode) {
-        Optional<Product> product = productRepository.findByBarcode(barcode);
+    public ResponseEntity<ProductSummary> getProductByBarcode(@PathVariable String barcode) {
+        Optional<ProductSummary> product = barcodeIndex.findProduct(barcode).map(ProductSummary::from);
         return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Timed("pos.product.search")
+    public List<ProductSummary> searchProducts(@RequestParam("q") String query,
+                                               @RequestParam(defaultValue = "" + ProductSearchIndex.DEFAULT_LIMIT) int limit) {
+        return productSearchIndex.search(query, Math.min(limit, ProductSearchIndex.MAX_LIMIT));
+    }
+
+    /** Served from {@code LowStockTracker} without a query, so always answered in full with live stock. */
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+    public List<ProductSummary> getLowStockProducts() {
+        return catalogService.findLowStockProducts();
+    }
+
+    /**
+     * Push channel for managers' screens: a {@code snapshot} event with the
+     * current low-stock set, then an {@code alert} event each time a product
+     * crosses in or out of it. Clients reconnect when the stream times out.
+     */
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<SseEmitter> streamLowStockAlerts() {
+        try {
+            return ResponseEntity.ok(lowStockTracker.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "60").build();
+        }
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public Product createProduct(@Valid @RequestBody Product product) {
-        return productRepository.save(product);
+        return catalogService.createProduct(product);
+    }
+
+    /**
+     * Bulk create and update by barcode from a CSV (with a header row) or
+     * NDJSON upload, read as it streams in. Answers 429 with Retry-After while
+     * another import is running.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Timed("pos.product.import")
+    public ResponseEntity<?> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                            InputStream body) {
+        ProductImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        Reader reader = new InputStreamReader(body,
+                contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset());
+        try {
+            Optional<ProductImportResult> result = productImportService.importProducts(reader, format);
+            return result.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "30").build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Upload could not be read: " + e.getMessage()));
+        }
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody Product productDetails) {
-        Optional<Product> productOptional = productRepository.findById(id);
-        
-        if (productOptional.isPresent()) {
-            Product product = productOptional.get();
-            product.setName(productDetails.getName());
-            product.setBarcode(productDetails.getBarcode());
-            product.setPrice(productDetails.getPrice());
-            product.setCost(productDetails.getCost());
-            product.setCurrentStock(productDetails.getCurrentStock());
-            product.setReorderThreshold(productDetails.getReorderThreshold());
-            product.setCategory(productDetails.getCategory());
-            product.setActive(productDetails.getActive());
-            return ResponseEntity.ok(productRepository.save(product));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<Product> product = catalogService.updateProduct(id, productDetails);
+        return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+        if (catalogService.deleteProduct(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+}
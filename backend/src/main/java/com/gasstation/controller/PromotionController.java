@@ -1,14 +1,17 @@
 package com.gasstation.controller;
 
+import com.gasstation.entity.CatalogEntityType;
 import com.gasstation.entity.Promotion;
-import com.gasstation.repository.PromotionRepository;
+import com.gasstation.service.CatalogService;
+import com.gasstation.service.CatalogVersions;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,61 +21,51 @@ import java.util.Optional;
 public class PromotionController {
 
     @Autowired
-    private PromotionRepository promotionRepository;
+    private CatalogService catalogService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public List<Promotion> getAllPromotions() {
-        return promotionRepository.findAll();
+    @Timed(value = "pos.list", extraTags = {"resource", "promotions"})
+    public ResponseEntity<List<Promotion>> getAllPromotions(WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(CatalogEntityType.PROMOTION),
+                catalogService::findAllPromotions);
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
     public List<Promotion> getActivePromotions() {
-        return promotionRepository.findActivePromotions(LocalDateTime.now());
+        return catalogService.findActivePromotions();
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<Promotion> getPromotionById(@PathVariable Long id) {
-        Optional<Promotion> promotion = promotionRepository.findById(id);
+        Optional<Promotion> promotion = catalogService.findPromotion(id);
         return promotion.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public Promotion createPromotion(@Valid @RequestBody Promotion promotion) {
-        return promotionRepository.save(promotion);
+        return catalogService.createPromotion(promotion);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<Promotion> updatePromotion(@PathVariable Long id, @Valid @RequestBody Promotion promotionDetails) {
-        Optional<Promotion> promotionOptional = promotionRepository.findById(id);
-        
-        if (promotionOptional.isPresent()) {
-            Promotion promotion = promotionOptional.get();
-            promotion.setName(promotionDetails.getName());
-            promotion.setDescription(promotionDetails.getDescription());
-            promotion.setPromotionType(promotionDetails.getPromotionType());
-            promotion.setDiscountValue(promotionDetails.getDiscountValue());
-            promotion.setStartDate(promotionDetails.getStartDate());
-            promotion.setEndDate(promotionDetails.getEndDate());
-            promotion.setActive(promotionDetails.getActive());
-            promotion.setMinPurchaseAmount(promotionDetails.getMinPurchaseAmount());
-            return ResponseEntity.ok(promotionRepository.save(promotion));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<Promotion> promotion = catalogService.updatePromotion(id, promotionDetails);
+        return promotion.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deletePromotion(@PathVariable Long id) {
-        if (promotionRepository.existsById(id)) {
-            promotionRepository.deleteById(id);
+        if (catalogService.deletePromotion(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+}
@@ -1,11 +1,15 @@
 package com.gasstation.controller;
 
+import com.gasstation.dto.ServiceLogSummary;
 import com.gasstation.entity.ServiceLog;
-import com.gasstation.repository.ServiceLogRepository;
+import com.gasstation.security.UserPrincipal;
+import com.gasstation.service.ServiceLogService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,13 +21,14 @@ import java.util.Optional;
 public class ServiceController {
 
     @Autowired
-    private ServiceLogRepository serviceLogRepository;
+    private ServiceLogService serviceLogService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<List<ServiceLog>> getAllServiceLogs() {
+    @Timed(value = "pos.list", extraTags = {"resource", "services"})
+    public ResponseEntity<List<ServiceLogSummary>> getAllServiceLogs() {
         try {
-            List<ServiceLog> serviceLogs = serviceLogRepository.findAll();
+            List<ServiceLogSummary> serviceLogs = serviceLogService.findAll();
             return ResponseEntity.ok(serviceLogs);
         } catch (Exception e) {
             e.printStackTrace();
@@ -33,41 +38,34 @@ public class ServiceController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    public ResponseEntity<ServiceLog> getServiceLogById(@PathVariable Long id) {
-        Optional<ServiceLog> serviceLog = serviceLogRepository.findById(id);
+    public ResponseEntity<ServiceLogSummary> getServiceLogById(@PathVariable Long id) {
+        Optional<ServiceLogSummary> serviceLog = serviceLogService.findById(id);
         return serviceLog.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
     public ServiceLog createServiceLog(@Valid @RequestBody ServiceLog serviceLog) {
-        return serviceLogRepository.save(serviceLog);
+        return serviceLogService.create(serviceLog, currentUserId());
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ServiceLog> updateServiceLog(@PathVariable Long id, @Valid @RequestBody ServiceLog serviceLogDetails) {
-        Optional<ServiceLog> serviceLogOptional = serviceLogRepository.findById(id);
-        
-        if (serviceLogOptional.isPresent()) {
-            ServiceLog serviceLog = serviceLogOptional.get();
-            serviceLog.setServiceType(serviceLogDetails.getServiceType());
-            serviceLog.setAmount(serviceLogDetails.getAmount());
-            serviceLog.setCustomerReference(serviceLogDetails.getCustomerReference());
-            serviceLog.setNotes(serviceLogDetails.getNotes());
-            return ResponseEntity.ok(serviceLogRepository.save(serviceLog));
-        }
-        
-        return ResponseEntity.notFound().build();
+        Optional<ServiceLog> serviceLog = serviceLogService.update(id, serviceLogDetails);
+        return serviceLog.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<?> deleteServiceLog(@PathVariable Long id) {
-        if (serviceLogRepository.existsById(id)) {
-            serviceLogRepository.deleteById(id);
+        if (serviceLogService.delete(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+
+    private static Long currentUserId() {
+        return ((UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
+}
@@ -24,7 +24,7 @@ public class TestController {
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers() {
         try {
-            List<User> users = userRepository.findAll();
+            List<User> users = userRepository.findAllWithRoles();
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
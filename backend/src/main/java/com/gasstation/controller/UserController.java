@@ -2,6 +2,8 @@ package com.gasstation.controller;
 
 import com.gasstation.entity.User;
 import com.gasstation.repository.UserRepository;
+import com.gasstation.security.UserCache;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +12,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -23,16 +26,20 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Timed(value = "pos.list", extraTags = {"resource", "users"})
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAllWithRoles();
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userRepository.findWithRolesById(id);
         return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
@@ -46,10 +53,14 @@ public class UserController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
-        Optional<User> userOptional = userRepository.findById(id);
+        Optional<User> userOptional = userRepository.findWithRolesById(id);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
+            String previousUsername = user.getUsername();
+            boolean accessChanged = !previousUsername.equals(userDetails.getUsername())
+                    || !Objects.equals(user.getActive(), userDetails.getActive())
+                    || !Objects.equals(user.getRoles(), userDetails.getRoles());
             user.setUsername(userDetails.getUsername());
             user.setEmail(userDetails.getEmail());
             user.setFirstName(userDetails.getFirstName());
@@ -61,9 +72,17 @@ public class UserController {
             // Only update password if provided
             if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
                 user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+                accessChanged = true;
+            }
+            
+            if (accessChanged) {
+                // Tokens carry username and roles, so the old ones must stop working
+                user.setTokenVersion(user.getTokenVersion() + 1);
             }
             
-            return ResponseEntity.ok(userRepository.save(user));
+            User saved = userRepository.save(user);
+            userCache.invalidate(previousUsername);
+            return ResponseEntity.ok(saved);
         }
         
         return ResponseEntity.notFound().build();
@@ -72,8 +91,10 @@ public class UserController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        if (userRepository.existsById(id)) {
+        Optional<User> userOptional = userRepository.findById(id);
+        if (userOptional.isPresent()) {
             userRepository.deleteById(id);
+            userCache.invalidate(userOptional.get().getUsername());
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -82,12 +103,14 @@ public class UserController {
     @PutMapping("/{id}/activate")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<User> activateUser(@PathVariable Long id) {
-        Optional<User> userOptional = userRepository.findById(id);
+        Optional<User> userOptional = userRepository.findWithRolesById(id);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             user.setActive(true);
-            return ResponseEntity.ok(userRepository.save(user));
+            User saved = userRepository.save(user);
+            userCache.invalidate(saved.getUsername());
+            return ResponseEntity.ok(saved);
         }
         
         return ResponseEntity.notFound().build();
@@ -96,12 +119,15 @@ public class UserController {
     @PutMapping("/{id}/deactivate")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<User> deactivateUser(@PathVariable Long id) {
-        Optional<User> userOptional = userRepository.findById(id);
+        Optional<User> userOptional = userRepository.findWithRolesById(id);
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             user.setActive(false);
-            return ResponseEntity.ok(userRepository.save(user));
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            User saved = userRepository.save(user);
+            userCache.invalidate(saved.getUsername());
+            return ResponseEntity.ok(saved);
         }
         
         return ResponseEntity.notFound().build();
@@ -0,0 +1,14 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.PromotionType;
+
+import java.math.BigDecimal;
+
+public record AppliedPromotion(
+        Long promotionId,
+        String name,
+        PromotionType promotionType,
+        BigDecimal discountValue,
+        BigDecimal applicableAmount,
+        BigDecimal discount) {
+}
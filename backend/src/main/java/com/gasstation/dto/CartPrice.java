@@ -0,0 +1,11 @@
+package com.gasstation.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record CartPrice(
+        BigDecimal subtotal,
+        BigDecimal discountAmount,
+        BigDecimal total,
+        List<AppliedPromotion> appliedPromotions) {
+}
@@ -0,0 +1,24 @@
+package com.gasstation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartPriceRequest {
+
+    @Valid
+    @NotEmpty
+    private List<CheckoutItemRequest> items = new ArrayList<>();
+
+    public CartPriceRequest() {}
+
+    public List<CheckoutItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CheckoutItemRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,27 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Promotion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog rows a lane has to apply to its local copy. With {@code full} set
+ * the lists are the whole catalog and the lane replaces what it has;
+ * otherwise they are upserts and {@code deleted} lists ids to drop. Rows that
+ * were deactivated arrive as upserts with {@code active = false}. The next
+ * request passes {@code watermark} back as {@code since}.
+ */
+public record CatalogChanges(
+        LocalDateTime watermark,
+        boolean full,
+        List<ProductSummary> products,
+        List<Category> categories,
+        List<Promotion> promotions,
+        List<LotteryGameSummary> lotteryGames,
+        List<FuelPriceSummary> fuelPrices,
+        Map<CatalogEntityType, List<Long>> deleted) {
+}
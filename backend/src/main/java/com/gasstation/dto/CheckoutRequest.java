@@ -0,0 +1,47 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.PaymentMethod;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckoutRequest {
+
+    @NotNull
+    private PaymentMethod paymentMethod;
+
+    @Valid
+    @NotEmpty
+    private List<CheckoutItemRequest> items = new ArrayList<>();
+
+    private String notes;
+
+    public CheckoutRequest() {}
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public List<CheckoutItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CheckoutItemRequest> items) {
+        this.items = items;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
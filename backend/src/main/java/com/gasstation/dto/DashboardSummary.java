@@ -0,0 +1,42 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.PaymentMethod;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class DashboardSummary {
+
+    private LocalDate from;
+    private LocalDate to;
+    private SalesTotals totals = new SalesTotals();
+    private Map<PaymentMethod, SalesTotals> byPaymentMethod = new EnumMap<>(PaymentMethod.class);
+    private Map<LocalDate, SalesTotals> byDay = new TreeMap<>();
+
+    public DashboardSummary(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public SalesTotals getTotals() {
+        return totals;
+    }
+
+    public Map<PaymentMethod, SalesTotals> getByPaymentMethod() {
+        return byPaymentMethod;
+    }
+
+    public Map<LocalDate, SalesTotals> getByDay() {
+        return byDay;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.FuelDelivery;
+import com.gasstation.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record FuelDeliverySummary(
+        Long id,
+        FuelType fuelType,
+        BigDecimal gallons,
+        BigDecimal costPerGallon,
+        BigDecimal totalCost,
+        LocalDateTime deliveryDate,
+        String supplierName,
+        String deliveryTicketNumber,
+        String notes) {
+
+    public static FuelDeliverySummary from(FuelDelivery delivery) {
+        return new FuelDeliverySummary(delivery.getId(), delivery.getFuelType(), delivery.getGallons(),
+                delivery.getCostPerGallon(), delivery.getTotalCost(), delivery.getDeliveryDate(),
+                delivery.getSupplierName(), delivery.getDeliveryTicketNumber(), delivery.getNotes());
+    }
+}
@@ -0,0 +1,20 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.FuelPrice;
+import com.gasstation.entity.FuelType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record FuelPriceSummary(
+        Long id,
+        FuelType fuelType,
+        BigDecimal pricePerGallon,
+        LocalDateTime effectiveDate,
+        Boolean active) {
+
+    public static FuelPriceSummary from(FuelPrice price) {
+        return new FuelPriceSummary(price.getId(), price.getFuelType(), price.getPricePerGallon(),
+                price.getEffectiveDate(), price.getActive());
+    }
+}
@@ -0,0 +1,23 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.LotteryGame;
+
+import java.math.BigDecimal;
+
+public record LotteryGameSummary(
+        Long id,
+        String name,
+        String barcode,
+        Integer packCount,
+        BigDecimal ticketPrice,
+        BigDecimal packCost,
+        Integer currentStock,
+        Boolean active,
+        String description) {
+
+    public static LotteryGameSummary from(LotteryGame game) {
+        return new LotteryGameSummary(game.getId(), game.getName(), game.getBarcode(), game.getPackCount(),
+                game.getTicketPrice(), game.getPackCost(), game.getCurrentStock(), game.getActive(),
+                game.getDescription());
+    }
+}
@@ -0,0 +1,19 @@
+package com.gasstation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed to managers when a product enters, moves within or leaves the
+ * low-stock set. {@code product} is the product as of the change.
+ */
+public record LowStockAlert(Type type, ProductSummary product, LocalDateTime at) {
+
+    public enum Type {
+        /** At or below its reorder threshold, with some left. */
+        LOW_STOCK,
+        /** Nothing left. */
+        OUT_OF_STOCK,
+        /** Above its threshold again, deactivated or deleted. */
+        CLEARED
+    }
+}
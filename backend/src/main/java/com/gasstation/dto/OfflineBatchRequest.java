@@ -0,0 +1,22 @@
+package com.gasstation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OfflineBatchRequest {
+
+    @NotEmpty
+    private List<OfflineTransactionRequest> transactions = new ArrayList<>();
+
+    public OfflineBatchRequest() {}
+
+    public List<OfflineTransactionRequest> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<OfflineTransactionRequest> transactions) {
+        this.transactions = transactions;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gasstation.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an offline batch, one result per uploaded sale in upload order.
+ * The lane can drop everything ACCEPTED or DUPLICATE from its queue, fix or
+ * discard what was REJECTED, and resend what FAILED.
+ */
+public record OfflineBatchResult(int accepted, int duplicates, int rejected, int failed, List<Item> results) {
+
+    public enum Status {
+        /** Stored by this request. */
+        ACCEPTED,
+        /** Already stored, by an earlier upload or earlier in this batch. */
+        DUPLICATE,
+        /** Invalid as sent; resending it unchanged will not help. */
+        REJECTED,
+        /** Valid but not stored because of a database error; safe to resend. */
+        FAILED
+    }
+
+    public record Item(String transactionNumber, Status status, Long id, String error) {
+    }
+
+    public static OfflineBatchResult of(List<Item> results) {
+        int[] counts = new int[Status.values().length];
+        for (Item item : results) {
+            counts[item.status().ordinal()]++;
+        }
+        return new OfflineBatchResult(counts[Status.ACCEPTED.ordinal()], counts[Status.DUPLICATE.ordinal()],
+                counts[Status.REJECTED.ordinal()], counts[Status.FAILED.ordinal()], List.copyOf(results));
+    }
+}
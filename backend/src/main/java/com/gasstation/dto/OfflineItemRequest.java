@@ -0,0 +1,42 @@
+package com.gasstation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a sale captured offline. The unit price is what the lane charged;
+ * without it the product's current price is used.
+ */
+public class OfflineItemRequest {
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private BigDecimal unitPrice;
+
+    public OfflineItemRequest() {}
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
@@ -0,0 +1,134 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sale a lane rang up while it could not reach the backend. The lane's
+ * transaction number identifies it, so uploading it twice is harmless.
+ * Fields are checked per record by the ingest service rather than by bean
+ * validation, so one bad sale does not reject the rest of the batch.
+ *
+ * <p>Amounts are what the customer was charged. When the subtotal, tax or
+ * total is missing, all three are recalculated from the lines.
+ */
+public class OfflineTransactionRequest {
+
+    private String transactionNumber;
+
+    private LocalDateTime transactionDate;
+
+    private PaymentMethod paymentMethod;
+
+    private TransactionStatus status;
+
+    /** Cashier who rang the sale up; defaults to the user uploading the batch. */
+    private Long cashierId;
+
+    private List<OfflineItemRequest> items = new ArrayList<>();
+
+    private BigDecimal subtotal;
+
+    private BigDecimal taxAmount;
+
+    private BigDecimal discountAmount;
+
+    private BigDecimal totalAmount;
+
+    private String notes;
+
+    public OfflineTransactionRequest() {}
+
+    public String getTransactionNumber() {
+        return transactionNumber;
+    }
+
+    public void setTransactionNumber(String transactionNumber) {
+        this.transactionNumber = transactionNumber;
+    }
+
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+
+    public void setTransactionDate(LocalDateTime transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TransactionStatus status) {
+        this.status = status;
+    }
+
+    public Long getCashierId() {
+        return cashierId;
+    }
+
+    public void setCashierId(Long cashierId) {
+        this.cashierId = cashierId;
+    }
+
+    public List<OfflineItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OfflineItemRequest> items) {
+        this.items = items;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,19 @@
+package com.gasstation.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Every data row is counted once as
+ * created, updated, unchanged, rejected (invalid, resending it unchanged will
+ * not help) or failed (valid but its chunk hit a database error; safe to
+ * resend). {@code errors} explains rejected and failed rows, up to
+ * {@code app.catalog.import.max-errors} of them. {@code aborted} is set when
+ * the file could not be read to the end; rows before that point were stored.
+ */
+public record ProductImportResult(long rows, long created, long updated, long unchanged, long rejected, long failed,
+                                  List<RowError> errors, String aborted) {
+
+    /** A row that was not stored; {@code line} is where it starts in the upload, header included. */
+    public record RowError(long line, String barcode, String error) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.gasstation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One product of a bulk import, matched to the catalog by barcode. Null
+ * fields are left as they are on an existing product; a new product needs at
+ * least a name, price, cost and category.
+ */
+public record ProductImportRow(
+        String barcode,
+        String name,
+        BigDecimal price,
+        BigDecimal cost,
+        Long categoryId,
+        Integer currentStock,
+        Integer reorderThreshold,
+        Boolean foodStampEligible,
+        Boolean active,
+        String description) {
+}
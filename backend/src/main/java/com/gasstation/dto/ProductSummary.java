@@ -0,0 +1,40 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model for products. List queries build it straight from the selected
+ * columns, so no entity or category proxy is ever handed to Jackson.
+ */
+public record ProductSummary(
+        Long id,
+        String name,
+        String barcode,
+        BigDecimal price,
+        BigDecimal cost,
+        Integer currentStock,
+        Integer reorderThreshold,
+        Boolean foodStampEligible,
+        Boolean active,
+        String description,
+        Long categoryId,
+        String categoryName,
+        BigDecimal taxRate) {
+
+    public static ProductSummary from(Product product) {
+        return of(product, product.getCategory());
+    }
+
+    /** For a product whose category field may be an unloaded stub from a request body. */
+    public static ProductSummary of(Product product, Category category) {
+        return new ProductSummary(product.getId(), product.getName(), product.getBarcode(), product.getPrice(),
+                product.getCost(), product.getCurrentStock(), product.getReorderThreshold(),
+                product.getFoodStampEligible(), product.getActive(), product.getDescription(),
+                category == null ? null : category.getId(),
+                category == null ? null : category.getName(),
+                category == null ? null : category.getTaxRate());
+    }
+}
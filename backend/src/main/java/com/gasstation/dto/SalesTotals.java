@@ -0,0 +1,60 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.DailySalesRollup;
+
+import java.math.BigDecimal;
+
+public class SalesTotals {
+
+    private long transactionCount;
+    private long itemCount;
+    private BigDecimal subtotal = BigDecimal.ZERO;
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private long voidCount;
+    private BigDecimal voidAmount = BigDecimal.ZERO;
+
+    public void add(DailySalesRollup row) {
+        transactionCount += row.getTransactionCount();
+        itemCount += row.getItemCount();
+        subtotal = subtotal.add(row.getSubtotal());
+        taxAmount = taxAmount.add(row.getTaxAmount());
+        discountAmount = discountAmount.add(row.getDiscountAmount());
+        totalAmount = totalAmount.add(row.getTotalAmount());
+        voidCount += row.getVoidCount();
+        voidAmount = voidAmount.add(row.getVoidAmount());
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public long getVoidCount() {
+        return voidCount;
+    }
+
+    public BigDecimal getVoidAmount() {
+        return voidAmount;
+    }
+}
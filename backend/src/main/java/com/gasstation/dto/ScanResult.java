@@ -0,0 +1,15 @@
+package com.gasstation.dto;
+
+import com.gasstation.service.BarcodeIndex;
+
+public record ScanResult(
+        BarcodeIndex.EntryType type,
+        ProductSummary product,
+        LotteryGameSummary lotteryGame) {
+
+    public static ScanResult from(BarcodeIndex.Entry entry) {
+        return new ScanResult(entry.getType(),
+                entry.getProduct() == null ? null : ProductSummary.from(entry.getProduct()),
+                entry.getLotteryGame() == null ? null : LotteryGameSummary.from(entry.getLotteryGame()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.ServiceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ServiceLogSummary(
+        Long id,
+        ServiceType serviceType,
+        BigDecimal amount,
+        String customerReference,
+        String notes,
+        LocalDateTime serviceDate,
+        String handledByUsername) {
+}
@@ -0,0 +1,26 @@
+package com.gasstation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.TransactionItem;
+
+import java.math.BigDecimal;
+
+public record TransactionLineSummary(
+        @JsonIgnore Long transactionId,
+        Long id,
+        Long productId,
+        String productName,
+        String productBarcode,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal totalPrice,
+        BigDecimal discountAmount) {
+
+    public static TransactionLineSummary from(TransactionItem item) {
+        Product product = item.getProduct();
+        return new TransactionLineSummary(null, item.getId(), product.getId(), product.getName(),
+                product.getBarcode(), item.getQuantity(), item.getUnitPrice(), item.getTotalPrice(),
+                item.getDiscountAmount());
+    }
+}
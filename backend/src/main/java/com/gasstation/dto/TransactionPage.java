@@ -0,0 +1,40 @@
+package com.gasstation.dto;
+
+import java.util.List;
+
+public class TransactionPage {
+
+    private List<TransactionSummary> content;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TransactionPage(List<TransactionSummary> content, String nextCursor, boolean hasMore) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<TransactionSummary> getContent() {
+        return content;
+    }
+
+    public void setContent(List<TransactionSummary> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
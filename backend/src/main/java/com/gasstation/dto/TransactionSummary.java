@@ -0,0 +1,61 @@
+package com.gasstation.dto;
+
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for a sale with its lines flattened to product id/name. The list
+ * query selects the header columns through the short constructor and attaches
+ * the lines from a second projection query.
+ */
+public record TransactionSummary(
+        Long id,
+        String transactionNumber,
+        LocalDateTime transactionDate,
+        TransactionStatus status,
+        PaymentMethod paymentMethod,
+        BigDecimal subtotal,
+        BigDecimal taxAmount,
+        BigDecimal discountAmount,
+        BigDecimal totalAmount,
+        String notes,
+        Long cashierId,
+        String cashierUsername,
+        String cashierFirstName,
+        String cashierLastName,
+        List<TransactionLineSummary> items) {
+
+    public TransactionSummary(Long id, String transactionNumber, LocalDateTime transactionDate,
+                              TransactionStatus status, PaymentMethod paymentMethod, BigDecimal subtotal,
+                              BigDecimal taxAmount, BigDecimal discountAmount, BigDecimal totalAmount, String notes,
+                              Long cashierId, String cashierUsername, String cashierFirstName,
+                              String cashierLastName) {
+        this(id, transactionNumber, transactionDate, status, paymentMethod, subtotal, taxAmount, discountAmount,
+                totalAmount, notes, cashierId, cashierUsername, cashierFirstName, cashierLastName,
+                new ArrayList<>());
+    }
+
+    public static TransactionSummary from(Transaction transaction) {
+        User cashier = transaction.getCashier();
+        TransactionSummary summary = new TransactionSummary(transaction.getId(), transaction.getTransactionNumber(),
+                transaction.getTransactionDate(), transaction.getStatus(), transaction.getPaymentMethod(),
+                transaction.getSubtotal(), transaction.getTaxAmount(), transaction.getDiscountAmount(),
+                transaction.getTotalAmount(), transaction.getNotes(),
+                cashier == null ? null : cashier.getId(),
+                cashier == null ? null : cashier.getUsername(),
+                cashier == null ? null : cashier.getFirstName(),
+                cashier == null ? null : cashier.getLastName());
+        for (TransactionItem item : transaction.getItems()) {
+            summary.items().add(TransactionLineSummary.from(item));
+        }
+        return summary;
+    }
+}
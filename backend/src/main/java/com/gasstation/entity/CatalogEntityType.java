@@ -0,0 +1,10 @@
+package com.gasstation.entity;
+
+/** Catalog data a lane keeps locally and pulls through {@code /api/catalog/changes}. */
+public enum CatalogEntityType {
+    PRODUCT,
+    CATEGORY,
+    PROMOTION,
+    LOTTERY_GAME,
+    FUEL_PRICE
+}
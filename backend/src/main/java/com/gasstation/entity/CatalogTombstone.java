@@ -0,0 +1,49 @@
+package com.gasstation.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Records that a catalog row was deleted, so lanes syncing since an earlier
+ * watermark learn to drop it; {@code createdAt} is the deletion time. Rows
+ * older than {@code app.catalog.sync.tombstone-retention-days} are purged, and
+ * a lane whose watermark is older than that gets a full snapshot instead.
+ */
+@Entity
+@Table(name = "catalog_tombstones")
+public class CatalogTombstone extends BaseEntity {
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private CatalogEntityType entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Constructors
+    public CatalogTombstone() {}
+
+    public CatalogTombstone(CatalogEntityType entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    // Getters and Setters
+    public CatalogEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(CatalogEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gasstation.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Change counter of one catalog table, the source of its ETags. Every write
+ * to the table moves {@code revision} in the writing transaction, so all
+ * instances see the same value once the write commits. New rows start at the
+ * current time in milliseconds, so a rebuilt database never hands out an
+ * ETag a client still holds from the old one.
+ */
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion extends BaseEntity {
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, unique = true, length = 30)
+    private CatalogEntityType entityType;
+
+    @NotNull
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+
+    // Constructors
+    public CatalogVersion() {}
+
+    public CatalogVersion(CatalogEntityType entityType, Long revision) {
+        this.entityType = entityType;
+        this.revision = revision;
+    }
+
+    // Getters and Setters
+    public CatalogEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(CatalogEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
@@ -20,7 +21,8 @@ public class Category extends BaseEntity {
     private String name;
 
     @DecimalMin(value = "0.0", inclusive = true)
-    @Column(name = "tax_rate", nullable = false, precision = 6, scale = 2)
+    @Digits(integer = 2, fraction = 4)
+    @Column(name = "tax_rate", nullable = false, precision = 6, scale = 4)
     private BigDecimal taxRate = BigDecimal.ZERO;
 
     @Column(name = "description")
@@ -0,0 +1,141 @@
+package com.gasstation.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-day, per-payment-method sales totals. Rows are maintained incrementally
+ * by {@link com.gasstation.service.SalesRollupService} as transactions are
+ * saved or voided, so reporting never has to scan the transactions table.
+ */
+@Entity
+@Table(name = "daily_sales_rollup", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"sales_date", "payment_method"})
+})
+public class DailySalesRollup extends BaseEntity {
+
+    @NotNull
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount = 0L;
+
+    @Column(name = "subtotal", nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "tax_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "void_count", nullable = false)
+    private Long voidCount = 0L;
+
+    @Column(name = "void_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal voidAmount = BigDecimal.ZERO;
+
+    // Constructors
+    public DailySalesRollup() {}
+
+    public DailySalesRollup(LocalDate salesDate, PaymentMethod paymentMethod) {
+        this.salesDate = salesDate;
+        this.paymentMethod = paymentMethod;
+    }
+
+    // Getters and Setters
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public void setSalesDate(LocalDate salesDate) {
+        this.salesDate = salesDate;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public Long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getVoidCount() {
+        return voidCount;
+    }
+
+    public void setVoidCount(Long voidCount) {
+        this.voidCount = voidCount;
+    }
+
+    public BigDecimal getVoidAmount() {
+        return voidAmount;
+    }
+
+    public void setVoidAmount(BigDecimal voidAmount) {
+        this.voidAmount = voidAmount;
+    }
+}
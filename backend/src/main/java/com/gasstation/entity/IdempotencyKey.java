@@ -0,0 +1,77 @@
+package com.gasstation.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A checkout already accepted under a client-supplied {@code Idempotency-Key}.
+ * The row is inserted in the same database transaction as the sale it names,
+ * so a key exists exactly when its sale committed. Keys are scoped to the
+ * cashier who sent them and expire after {@code app.pos.idempotency.ttl-hours}.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"cashier_id", "idempotency_key"})
+})
+public class IdempotencyKey extends BaseEntity {
+
+    @NotNull
+    @Column(name = "cashier_id", nullable = false)
+    private Long cashierId;
+
+    @NotNull
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    /** SHA-256 of the normalized cart, to reject a key reused for a different request. */
+    @NotNull
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @NotNull
+    @Column(name = "transaction_number", nullable = false, length = 50)
+    private String transactionNumber;
+
+    // Constructors
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(Long cashierId, String idempotencyKey, String requestHash, String transactionNumber) {
+        this.cashierId = cashierId;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.transactionNumber = transactionNumber;
+    }
+
+    // Getters and Setters
+    public Long getCashierId() {
+        return cashierId;
+    }
+
+    public void setCashierId(Long cashierId) {
+        this.cashierId = cashierId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getTransactionNumber() {
+        return transactionNumber;
+    }
+
+    public void setTransactionNumber(String transactionNumber) {
+        this.transactionNumber = transactionNumber;
+    }
+}
@@ -1,11 +1,18 @@
 package com.gasstation.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
 @Table(name = "inventory_transactions")
+@NamedEntityGraph(name = "InventoryTransaction.report",
+        attributeNodes = {
+                @NamedAttributeNode(value = "product", subgraph = "product"),
+                @NamedAttributeNode("user")
+        },
+        subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category")))
 public class InventoryTransaction extends BaseEntity {
 
     @NotNull
@@ -22,10 +29,12 @@ public class InventoryTransaction extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Product product;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password", "roles"})
     private User user;
 
     // Constructors
@@ -5,5 +5,6 @@ public enum InventoryTransactionType {
     AUDIT,
     SALE,
     DAMAGE,
-    ADJUSTMENT
+    ADJUSTMENT,
+    RETURN
 } 
\ No newline at end of file
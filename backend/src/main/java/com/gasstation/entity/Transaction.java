@@ -14,6 +14,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "transactions")
+@NamedEntityGraph(name = "Transaction.receipt",
+        attributeNodes = {
+                @NamedAttributeNode("cashier"),
+                @NamedAttributeNode(value = "items", subgraph = "items")
+        },
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Transaction extends BaseEntity {
 
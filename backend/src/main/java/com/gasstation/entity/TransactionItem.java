@@ -30,9 +30,9 @@ public class TransactionItem extends BaseEntity {
     @Column(name = "discount_amount", precision = 10, scale = 2)
     private BigDecimal discountAmount = BigDecimal.ZERO;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
-    @JsonIgnoreProperties({"transactions", "inventoryTransactions"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "transactions", "inventoryTransactions"})
     private Product product;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,6 +13,7 @@ import java.util.Set;
     @UniqueConstraint(columnNames = "username"),
     @UniqueConstraint(columnNames = "email")
 })
+@NamedEntityGraph(name = "User.withRoles", attributeNodes = @NamedAttributeNode("roles"))
 public class User extends BaseEntity {
 
     @NotBlank
@@ -47,7 +48,12 @@ public class User extends BaseEntity {
     @Column(name = "phone")
     private String phone;
 
-    @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
+    /** Copied into every token; bumping it invalidates all tokens issued so far. */
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+
+    @ElementCollection(targetClass = Role.class, fetch = FetchType.LAZY)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
@@ -121,6 +127,14 @@ public class User extends BaseEntity {
         this.phone = phone;
     }
 
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public Set<Role> getRoles() {
         return roles;
     }
@@ -0,0 +1,148 @@
+package com.gasstation.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestJdbcStats} scope around every request and, per
+ * method/uri, records how long pooled connections were held
+ * ({@code db.connection.hold}), how many were taken
+ * ({@code db.connection.acquisitions}), statements executed
+ * ({@code db.statements}), rows read ({@code db.rows}) and time spent in the
+ * driver ({@code db.jdbc.time}). Runs ahead of Spring Security so that
+ * authentication lookups are counted too.
+ *
+ * <p>Requests over the statement threshold are logged, as is any SQL run
+ * often enough within one request to look like an N+1. With
+ * {@code app.monitoring.jdbc.response-headers} on (dev profiles) the numbers
+ * are also returned as {@code X-Sql-*} headers; the response is buffered to
+ * make that possible, so it stays off in production.
+ *
+ * <p>Only registered together with {@link JdbcTrackingConfig}, i.e. when
+ * {@code app.monitoring.jdbc.enabled} is set; without the tracking
+ * DataSource there would be nothing to record.
+ */
+@Component
+@ConditionalOnProperty(name = "app.monitoring.jdbc.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JdbcRequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRequestMetricsFilter.class);
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String JDBC_TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String CONNECTION_HOLD_HEADER = "X-Db-Connection-Hold-Ms";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.monitoring.jdbc.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Value("${app.monitoring.jdbc.statement-warn-threshold:50}")
+    private int statementWarnThreshold;
+
+    @Value("${app.monitoring.jdbc.repeated-statement-threshold:10}")
+    private int repeatedStatementThreshold;
+
+    public JdbcRequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = responseHeaders && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        RequestJdbcStats stats = RequestJdbcStats.begin();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestJdbcStats.end(stats);
+            String uri = uriTag(request);
+            record(request.getMethod(), uri, stats);
+            report(request.getMethod(), uri, stats);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+                buffered.setHeader(ROWS_HEADER, Long.toString(stats.getRows()));
+                buffered.setHeader(JDBC_TIME_HEADER, millis(stats.getJdbcNanos()));
+                buffered.setHeader(CONNECTION_HOLD_HEADER, millis(stats.getHeldNanos()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(String method, String uri, RequestJdbcStats stats) {
+        timer("db.connection.hold", "Time a request kept pooled JDBC connections checked out", method, uri)
+                .record(stats.getHeldNanos(), TimeUnit.NANOSECONDS);
+        summary("db.connection.acquisitions", "Pooled JDBC connections checked out per request", method, uri)
+                .record(stats.getAcquisitions());
+        summary("db.statements", "SQL statements executed per request", method, uri)
+                .record(stats.getStatements());
+        summary("db.rows", "Result set rows read per request", method, uri)
+                .record(stats.getRows());
+        timer("db.jdbc.time", "Time a request spent executing SQL", method, uri)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void report(String method, String uri, RequestJdbcStats stats) {
+        if (stats.getStatements() > statementWarnThreshold) {
+            logger.warn("{} {} executed {} SQL statements ({} rows, {} ms in JDBC)",
+                    method, uri, stats.getStatements(), stats.getRows(), millis(stats.getJdbcNanos()));
+        }
+        Map.Entry<String, Integer> repeated = stats.mostRepeatedStatement();
+        if (repeated != null && repeated.getValue() >= repeatedStatementThreshold) {
+            logger.warn("Possible N+1 in {} {}: executed {} times: {}", method, uri, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    private Timer timer(String name, String description, String method, String uri) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private static String uriTag(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
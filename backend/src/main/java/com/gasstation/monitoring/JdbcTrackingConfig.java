@@ -0,0 +1,32 @@
+package com.gasstation.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource in a {@link JdbcTrackingDataSource} when
+ * {@code app.monitoring.jdbc.enabled} is set. Off unless a profile turns it
+ * on, so production connections are not proxied by default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.monitoring.jdbc.enabled", havingValue = "true")
+public class JdbcTrackingConfig {
+
+    /** Static so it is registered before the DataSource bean is created. */
+    @Bean
+    public static BeanPostProcessor jdbcTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof JdbcTrackingDataSource)) {
+                    return new JdbcTrackingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.gasstation.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so that JDBC work done inside a {@link RequestJdbcStats}
+ * scope is counted: each connection is timed from checkout to
+ * {@code close()} (the return to the pool), each {@code execute*} call is
+ * counted and timed, and each row read through a result set is counted.
+ * Outside a scope connections are handed out untouched.
+ */
+public class JdbcTrackingDataSource extends DelegatingDataSource {
+
+    public JdbcTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        stats.connectionAcquired();
+        return proxy(Connection.class, new ConnectionHandler(connection, stats));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcTrackingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /** Handles identity methods on the proxy itself and forwards everything else to the target. */
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        final Object target;
+        final RequestJdbcStats stats;
+
+        ForwardingHandler(Object target, RequestJdbcStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends ForwardingHandler {
+
+        private final long acquiredAt = System.nanoTime();
+        private boolean released;
+
+        ConnectionHandler(Connection target, RequestJdbcStats stats) {
+            super(target, stats);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        stats.connectionReleased(System.nanoTime() - acquiredAt);
+                    }
+                    return forward(method, args);
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(forward(method, args), null, stats));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(forward(method, args), (String) args[0], stats));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler(forward(method, args), (String) args[0], stats));
+                default:
+                    return forward(method, args);
+            }
+        }
+    }
+
+    private static final class StatementHandler extends ForwardingHandler {
+
+        private final String preparedSql;
+
+        StatementHandler(Object target, String preparedSql, RequestJdbcStats stats) {
+            super(target, stats);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = preparedSql;
+                if (sql == null && args != null && args.length > 0 && args[0] instanceof String text) {
+                    sql = text;
+                }
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = forward(method, args);
+                } finally {
+                    stats.statementExecuted(sql, System.nanoTime() - start);
+                }
+                return result instanceof ResultSet resultSet ? track(resultSet) : result;
+            }
+            if (name.equals("getResultSet")) {
+                Object result = forward(method, args);
+                return result instanceof ResultSet resultSet ? track(resultSet) : result;
+            }
+            return forward(method, args);
+        }
+
+        private ResultSet track(ResultSet resultSet) {
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, stats));
+        }
+    }
+
+    private static final class ResultSetHandler extends ForwardingHandler {
+
+        ResultSetHandler(ResultSet target, RequestJdbcStats stats) {
+            super(target, stats);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                stats.rowFetched();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.gasstation.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Business counters for the lanes. Rates (sales per second and so on) come
+ * from the scraper; here we only count. Changes made inside a transaction
+ * are counted once it commits, so rolled-back sales never show up.
+ */
+@Component
+public class PosMetrics {
+
+    private final Counter transactionsCompleted;
+    private final Counter itemsSold;
+    private final Counter transactionsVoided;
+    private final Counter scansFound;
+    private final Counter scansNotFound;
+    private final Counter checkoutsReplayed;
+
+    public PosMetrics(MeterRegistry meterRegistry) {
+        this.transactionsCompleted = Counter.builder("pos.transactions.completed")
+                .description("Sales completed")
+                .register(meterRegistry);
+        this.itemsSold = Counter.builder("pos.items.sold")
+                .description("Units sold in completed sales")
+                .register(meterRegistry);
+        this.transactionsVoided = Counter.builder("pos.transactions.voided")
+                .description("Sales voided after completion or while open")
+                .register(meterRegistry);
+        this.scansFound = Counter.builder("pos.items.scanned")
+                .description("Barcodes scanned at the register")
+                .tag("result", "found")
+                .register(meterRegistry);
+        this.scansNotFound = Counter.builder("pos.items.scanned")
+                .description("Barcodes scanned at the register")
+                .tag("result", "not_found")
+                .register(meterRegistry);
+        this.checkoutsReplayed = Counter.builder("pos.checkout.replayed")
+                .description("Checkout retries answered from an idempotency key instead of a new sale")
+                .register(meterRegistry);
+    }
+
+    public void saleCompleted(long units) {
+        afterCommit(() -> {
+            transactionsCompleted.increment();
+            itemsSold.increment(units);
+        });
+    }
+
+    public void saleVoided() {
+        afterCommit(transactionsVoided::increment);
+    }
+
+    public void itemScanned(boolean found) {
+        (found ? scansFound : scansNotFound).increment();
+    }
+
+    public void checkoutReplayed() {
+        checkoutsReplayed.increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.gasstation.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC work done by the request (or test query budget) running on the
+ * current thread: connections checked out and how long they were held,
+ * statements executed, rows read and time spent inside the driver.
+ * Fed by {@link JdbcTrackingDataSource}; work outside any scope (startup,
+ * scheduled tasks) is not tracked.
+ *
+ * <p>Scopes nest: when an inner scope ends its numbers are added to the
+ * enclosing one, so a budget wrapped around a MockMvc call sees everything
+ * the request filter saw.
+ */
+public final class RequestJdbcStats {
+
+    private static final ThreadLocal<RequestJdbcStats> CURRENT = new ThreadLocal<>();
+
+    private final RequestJdbcStats parent;
+    private int acquisitions;
+    private long heldNanos;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    /** Executions per SQL string; a high count for one string is the N+1 signature. */
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    private RequestJdbcStats(RequestJdbcStats parent) {
+        this.parent = parent;
+    }
+
+    static RequestJdbcStats begin() {
+        RequestJdbcStats stats = new RequestJdbcStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end(RequestJdbcStats stats) {
+        if (stats.parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        stats.parent.acquisitions += stats.acquisitions;
+        stats.parent.heldNanos += stats.heldNanos;
+        stats.parent.statements += stats.statements;
+        stats.parent.rows += stats.rows;
+        stats.parent.jdbcNanos += stats.jdbcNanos;
+        stats.executionsBySql.forEach((sql, count) -> stats.parent.executionsBySql.merge(sql, count, Integer::sum));
+        CURRENT.set(stats.parent);
+    }
+
+    /** The stats of the current scope, or {@code null} outside one. */
+    public static RequestJdbcStats current() {
+        return CURRENT.get();
+    }
+
+    void connectionAcquired() {
+        acquisitions++;
+    }
+
+    void connectionReleased(long heldNanos) {
+        this.heldNanos += heldNanos;
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    public int getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getHeldNanos() {
+        return heldNanos;
+    }
+
+    /** Round trips to the database; an executed batch counts once. */
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /** The SQL executed most often in this scope, or {@code null} if none ran. */
+    public Map.Entry<String, Integer> mostRepeatedStatement() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
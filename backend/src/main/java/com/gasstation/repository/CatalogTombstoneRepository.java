@@ -0,0 +1,21 @@
+package com.gasstation.repository;
+
+import com.gasstation.entity.CatalogTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+
+    List<CatalogTombstone> findByCreatedAtAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM CatalogTombstone t WHERE t.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
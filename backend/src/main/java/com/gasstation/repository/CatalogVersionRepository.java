@@ -0,0 +1,19 @@
+package com.gasstation.repository;
+
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.revision = v.revision + 1, v.updatedAt = :now WHERE v.entityType = :type")
+    int bump(@Param("type") CatalogEntityType type, @Param("now") LocalDateTime now);
+}
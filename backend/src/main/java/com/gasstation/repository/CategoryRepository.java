@@ -4,6 +4,7 @@ import com.gasstation.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +16,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByActiveTrue();
     
     Boolean existsByName(String name);
+
+    List<Category> findByUpdatedAtAfter(LocalDateTime since);
 } 
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.gasstation.repository;
+
+import com.gasstation.entity.DailySalesRollup;
+import com.gasstation.entity.PaymentMethod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    List<DailySalesRollup> findBySalesDateBetweenOrderBySalesDate(LocalDate startDate, LocalDate endDate);
+
+    boolean existsBySalesDateAndPaymentMethod(LocalDate salesDate, PaymentMethod paymentMethod);
+
+    /**
+     * Adds the given deltas to an existing rollup row in a single statement so
+     * concurrent lanes never lose each other's updates.
+     *
+     * @return number of rows updated; 0 when the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE DailySalesRollup r SET " +
+           "r.transactionCount = r.transactionCount + :transactionCount, " +
+           "r.itemCount = r.itemCount + :itemCount, " +
+           "r.subtotal = r.subtotal + :subtotal, " +
+           "r.taxAmount = r.taxAmount + :taxAmount, " +
+           "r.discountAmount = r.discountAmount + :discountAmount, " +
+           "r.totalAmount = r.totalAmount + :totalAmount, " +
+           "r.voidCount = r.voidCount + :voidCount, " +
+           "r.voidAmount = r.voidAmount + :voidAmount " +
+           "WHERE r.salesDate = :salesDate AND r.paymentMethod = :paymentMethod")
+    int applyDelta(@Param("salesDate") LocalDate salesDate,
+                   @Param("paymentMethod") PaymentMethod paymentMethod,
+                   @Param("transactionCount") long transactionCount,
+                   @Param("itemCount") long itemCount,
+                   @Param("subtotal") BigDecimal subtotal,
+                   @Param("taxAmount") BigDecimal taxAmount,
+                   @Param("discountAmount") BigDecimal discountAmount,
+                   @Param("totalAmount") BigDecimal totalAmount,
+                   @Param("voidCount") long voidCount,
+                   @Param("voidAmount") BigDecimal voidAmount);
+}
@@ -1,8 +1,10 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.FuelDeliverySummary;
 import com.gasstation.entity.FuelDelivery;
 import com.gasstation.entity.FuelType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -16,4 +18,9 @@ public interface FuelDeliveryRepository extends JpaRepository<FuelDelivery, Long
     List<FuelDelivery> findByDeliveryDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     List<FuelDelivery> findBySupplierName(String supplierName);
+
+    @Query("SELECT new com.gasstation.dto.FuelDeliverySummary(fd.id, fd.fuelType, fd.gallons, fd.costPerGallon, " +
+           "fd.totalCost, fd.deliveryDate, fd.supplierName, fd.deliveryTicketNumber, fd.notes) " +
+           "FROM FuelDelivery fd ORDER BY fd.deliveryDate DESC, fd.id DESC")
+    List<FuelDeliverySummary> findAllSummaries();
 } 
\ No newline at end of file
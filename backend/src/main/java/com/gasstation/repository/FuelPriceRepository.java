@@ -1,5 +1,6 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.FuelPriceSummary;
 import com.gasstation.entity.FuelPrice;
 import com.gasstation.entity.FuelType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,16 +8,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface FuelPriceRepository extends JpaRepository<FuelPrice, Long> {
     
     List<FuelPrice> findByFuelType(FuelType fuelType);
     
-    @Query("SELECT fp FROM FuelPrice fp WHERE fp.fuelType = :fuelType AND fp.active = true ORDER BY fp.effectiveDate DESC")
-    Optional<FuelPrice> findCurrentPriceByFuelType(@Param("fuelType") FuelType fuelType);
-    
     List<FuelPrice> findByActiveTrue();
+
+    @Query("SELECT new com.gasstation.dto.FuelPriceSummary(fp.id, fp.fuelType, fp.pricePerGallon, fp.effectiveDate, fp.active) " +
+           "FROM FuelPrice fp ORDER BY fp.fuelType, fp.effectiveDate DESC")
+    List<FuelPriceSummary> findAllSummaries();
+
+    @Query("SELECT new com.gasstation.dto.FuelPriceSummary(fp.id, fp.fuelType, fp.pricePerGallon, fp.effectiveDate, fp.active) " +
+           "FROM FuelPrice fp WHERE fp.updatedAt > :since ORDER BY fp.fuelType, fp.effectiveDate DESC")
+    List<FuelPriceSummary> findSummariesUpdatedAfter(@Param("since") LocalDateTime since);
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.gasstation.repository;
 
 import com.gasstation.entity.InventoryTransaction;
 import com.gasstation.entity.InventoryTransactionType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,10 +10,19 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, Long> {
     
+    /** Inventory report: each movement with its product, category and user. */
+    @EntityGraph("InventoryTransaction.report")
+    @Query("SELECT it FROM InventoryTransaction it")
+    List<InventoryTransaction> findAllForReport();
+
+    @EntityGraph("InventoryTransaction.report")
+    Optional<InventoryTransaction> findForReportById(Long id);
+
     List<InventoryTransaction> findByProductId(Long productId);
     
     List<InventoryTransaction> findByTransactionType(InventoryTransactionType transactionType);
@@ -1,9 +1,13 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.LotteryGameSummary;
 import com.gasstation.entity.LotteryGame;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,12 @@ public interface LotteryGameRepository extends JpaRepository<LotteryGame, Long>
     List<LotteryGame> findByActiveTrue();
     
     Boolean existsByBarcode(String barcode);
+
+    @Query("SELECT new com.gasstation.dto.LotteryGameSummary(g.id, g.name, g.barcode, g.packCount, g.ticketPrice, " +
+           "g.packCost, g.currentStock, g.active, g.description) FROM LotteryGame g ORDER BY g.id")
+    List<LotteryGameSummary> findAllSummaries();
+
+    @Query("SELECT new com.gasstation.dto.LotteryGameSummary(g.id, g.name, g.barcode, g.packCount, g.ticketPrice, " +
+           "g.packCost, g.currentStock, g.active, g.description) FROM LotteryGame g WHERE g.updatedAt > :since ORDER BY g.id")
+    List<LotteryGameSummary> findSummariesUpdatedAfter(@Param("since") LocalDateTime since);
 } 
\ No newline at end of file
@@ -1,20 +1,45 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.ProductSummary;
 import com.gasstation.entity.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     
+    /** Scan lookup: the cached copy carries the category's tax rate. */
+    @EntityGraph("Product.withCategory")
     Optional<Product> findByBarcode(String barcode);
+
+    @EntityGraph("Product.withCategory")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @EntityGraph("Product.withCategory")
+    @Query("SELECT p FROM Product p")
+    List<Product> findAllWithCategory();
+
+    /** Cart pricing and checkout: promotions and tax both key off the category. */
+    @EntityGraph("Product.withCategory")
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Bulk import: matches a chunk of rows to the catalog in one query. */
+    @EntityGraph("Product.withCategory")
+    @Query("SELECT p FROM Product p WHERE p.barcode IN :barcodes")
+    List<Product> findAllWithCategoryByBarcodeIn(@Param("barcodes") Collection<String> barcodes);
     
     List<Product> findByActiveTrue();
     
+    @EntityGraph("Product.withCategory")
     List<Product> findByCategoryId(Long categoryId);
     
     @Query("SELECT p FROM Product p WHERE p.currentStock <= p.reorderThreshold AND p.active = true")
@@ -22,6 +47,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Boolean existsByBarcode(String barcode);
     
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:name% AND p.active = true")
-    List<Product> findByNameContaining(String name);
+    @Query("SELECT new com.gasstation.dto.ProductSummary(p.id, p.name, p.barcode, p.price, p.cost, " +
+           "p.currentStock, p.reorderThreshold, p.foodStampEligible, p.active, p.description, " +
+           "c.id, c.name, c.taxRate) FROM Product p JOIN p.category c ORDER BY p.id")
+    List<ProductSummary> findAllSummaries();
+
+    @Query("SELECT new com.gasstation.dto.ProductSummary(p.id, p.name, p.barcode, p.price, p.cost, " +
+           "p.currentStock, p.reorderThreshold, p.foodStampEligible, p.active, p.description, " +
+           "c.id, c.name, c.taxRate) FROM Product p JOIN p.category c WHERE p.updatedAt > :since ORDER BY p.id")
+    List<ProductSummary> findSummariesUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.gasstation.dto.ProductSummary(p.id, p.name, p.barcode, p.price, p.cost, " +
+           "p.currentStock, p.reorderThreshold, p.foodStampEligible, p.active, p.description, " +
+           "c.id, c.name, c.taxRate) FROM Product p JOIN p.category c WHERE c.id IN :categoryIds ORDER BY p.id")
+    List<ProductSummary> findSummariesByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
 } 
\ No newline at end of file
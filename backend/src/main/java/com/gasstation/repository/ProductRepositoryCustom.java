@@ -0,0 +1,33 @@
+package com.gasstation.repository;
+
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Decrements stock for several products in one UPDATE statement. A row is
+     * only touched when it still has enough stock for its quantity, and its
+     * version is bumped so concurrent entity edits see the change.
+     *
+     * @param quantities product id to quantity to take
+     * @return number of products actually decremented
+     */
+    int decrementStock(Map<Long, Integer> quantities);
+
+    /**
+     * Adds a signed delta to the stock of several products in one UPDATE
+     * statement, without any floor. Used for sales that already happened,
+     * such as those a lane captured offline.
+     *
+     * @param deltas product id to change in stock (negative to take)
+     * @return number of products updated
+     */
+    int adjustStock(Map<Long, Integer> deltas);
+
+    /**
+     * Sets a product's stock to a counted quantity, bumping its version.
+     *
+     * @return number of products updated (0 if the product does not exist)
+     */
+    int setStock(Long productId, int stock);
+}
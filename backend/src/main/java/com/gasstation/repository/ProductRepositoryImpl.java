@@ -0,0 +1,72 @@
+package com.gasstation.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int decrementStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+
+        String quantityCase = quantityCase(quantities.size());
+        Query query = entityManager.createQuery(
+                "UPDATE VERSIONED Product p " +
+                "SET p.currentStock = p.currentStock - (" + quantityCase + "), p.updatedAt = :now " +
+                "WHERE p.id IN :ids AND p.currentStock >= (" + quantityCase + ")");
+        bind(query, quantities);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int adjustStock(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        Query query = entityManager.createQuery(
+                "UPDATE VERSIONED Product p " +
+                "SET p.currentStock = p.currentStock + (" + quantityCase(deltas.size()) + "), p.updatedAt = :now " +
+                "WHERE p.id IN :ids");
+        bind(query, deltas);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int setStock(Long productId, int stock) {
+        return entityManager.createQuery(
+                "UPDATE VERSIONED Product p SET p.currentStock = :stock, p.updatedAt = :now WHERE p.id = :id")
+                .setParameter("stock", stock)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("id", productId)
+                .executeUpdate();
+    }
+
+    private static String quantityCase(int size) {
+        StringBuilder quantityCase = new StringBuilder("CASE p.id");
+        for (int i = 0; i < size; i++) {
+            quantityCase.append(" WHEN :id").append(i).append(" THEN :qty").append(i);
+        }
+        return quantityCase.append(" ELSE 0 END").toString();
+    }
+
+    private static void bind(Query query, Map<Long, Integer> quantities) {
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("qty" + i, entry.getValue());
+            i++;
+        }
+        query.setParameter("ids", quantities.keySet());
+        query.setParameter("now", LocalDateTime.now());
+    }
+}
@@ -19,4 +19,6 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long> {
     
     @Query("SELECT p FROM Promotion p WHERE p.active = true AND p.startDate <= :now AND p.endDate >= :now")
     List<Promotion> findActivePromotionsForProduct(@Param("now") LocalDateTime now);
+
+    List<Promotion> findByUpdatedAtAfter(LocalDateTime since);
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.ServiceLogSummary;
 import com.gasstation.entity.ServiceLog;
 import com.gasstation.entity.ServiceType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ServiceLogRepository extends JpaRepository<ServiceLog, Long> {
@@ -20,6 +22,16 @@ public interface ServiceLogRepository extends JpaRepository<ServiceLog, Long> {
     
     List<ServiceLog> findByHandledById(Long handledById);
     
+    @Query("SELECT new com.gasstation.dto.ServiceLogSummary(sl.id, sl.serviceType, sl.amount, " +
+           "sl.customerReference, sl.notes, sl.serviceDate, u.username) " +
+           "FROM ServiceLog sl LEFT JOIN sl.handledBy u ORDER BY sl.serviceDate DESC, sl.id DESC")
+    List<ServiceLogSummary> findAllSummaries();
+
+    @Query("SELECT new com.gasstation.dto.ServiceLogSummary(sl.id, sl.serviceType, sl.amount, " +
+           "sl.customerReference, sl.notes, sl.serviceDate, u.username) " +
+           "FROM ServiceLog sl LEFT JOIN sl.handledBy u WHERE sl.id = :id")
+    Optional<ServiceLogSummary> findSummaryById(@Param("id") Long id);
+    
     @Query("SELECT SUM(sl.amount) FROM ServiceLog sl WHERE sl.serviceDate >= :startDate")
     BigDecimal getTotalServiceAmountFromDate(@Param("startDate") LocalDateTime startDate);
 } 
\ No newline at end of file
@@ -1,18 +1,23 @@
 package com.gasstation.repository;
 
+import com.gasstation.dto.TransactionLineSummary;
 import com.gasstation.entity.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionRepositoryCustom {
     
     List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
@@ -27,18 +32,21 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM Transaction t WHERE t.transactionDate >= CURRENT_DATE")
     BigDecimal getTodaysTotalSales();
 
-    @Query("SELECT DISTINCT t FROM Transaction t " +
-           "LEFT JOIN FETCH t.items ti " +
-           "LEFT JOIN FETCH ti.product p " +
-           "LEFT JOIN FETCH p.category " +
-           "LEFT JOIN FETCH t.cashier")
-    List<Transaction> findAllWithItemsAndProducts();
+    @Query("SELECT new com.gasstation.dto.TransactionLineSummary(ti.transaction.id, ti.id, p.id, p.name, " +
+           "p.barcode, ti.quantity, ti.unitPrice, ti.totalPrice, ti.discountAmount) " +
+           "FROM TransactionItem ti JOIN ti.product p " +
+           "WHERE ti.transaction.id IN :transactionIds ORDER BY ti.id")
+    List<TransactionLineSummary> findLineSummariesByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
 
-    @Query("SELECT DISTINCT t FROM Transaction t " +
-           "LEFT JOIN FETCH t.items ti " +
-           "LEFT JOIN FETCH ti.product p " +
-           "LEFT JOIN FETCH p.category " +
-           "LEFT JOIN FETCH t.cashier " +
-           "WHERE t.id = :id")
+    @Query("SELECT t.transactionNumber FROM Transaction t WHERE t.transactionNumber IN :transactionNumbers")
+    List<String> findExistingTransactionNumbers(@Param("transactionNumbers") Collection<String> transactionNumbers);
+
+    /** Receipt view: header, cashier and every line with its product. */
+    @EntityGraph("Transaction.receipt")
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
     Optional<Transaction> findByIdWithItemsAndProducts(@Param("id") Long id);
+
+    @EntityGraph("Transaction.receipt")
+    @Query("SELECT t FROM Transaction t WHERE t.transactionNumber = :transactionNumber")
+    Optional<Transaction> findByTransactionNumberWithItemsAndProducts(@Param("transactionNumber") String transactionNumber);
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.gasstation.repository;
+
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Header-only projection of the transactions matching {@code spec}, newest
+     * first. Lines are not loaded; see {@link TransactionRepository#findLineSummariesByTransactionIdIn}.
+     */
+    List<TransactionSummary> findSummaries(Specification<Transaction> spec, int limit);
+}
@@ -0,0 +1,44 @@
+package com.gasstation.repository;
+
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionSummary> findSummaries(Specification<Transaction> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionSummary> query = cb.createQuery(TransactionSummary.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        Join<Transaction, User> cashier = t.join("cashier", JoinType.LEFT);
+
+        query.select(cb.construct(TransactionSummary.class,
+                t.get("id"), t.get("transactionNumber"), t.get("transactionDate"), t.get("status"),
+                t.get("paymentMethod"), t.get("subtotal"), t.get("taxAmount"), t.get("discountAmount"),
+                t.get("totalAmount"), t.get("notes"),
+                cashier.get("id"), cashier.get("username"), cashier.get("firstName"), cashier.get("lastName")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(t, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(t.get("transactionDate")), cb.desc(t.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
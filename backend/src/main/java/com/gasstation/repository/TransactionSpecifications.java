@@ -0,0 +1,60 @@
+package com.gasstation.repository;
+
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Composable filters for transaction listing. Each factory returns {@code null}
+ * when its argument is absent so that only the predicates actually requested
+ * end up in the generated SQL.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {}
+
+    public static Specification<Transaction> onOrAfter(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("transactionDate"), from);
+    }
+
+    public static Specification<Transaction> before(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("transactionDate"), to);
+    }
+
+    public static Specification<Transaction> hasCashier(Long cashierId) {
+        if (cashierId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("cashier").get("id"), cashierId);
+    }
+
+    public static Specification<Transaction> hasStatus(TransactionStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Keyset predicate for a newest-first listing: rows strictly after the
+     * cursor position in {@code (transactionDate DESC, id DESC)} order.
+     */
+    public static Specification<Transaction> after(LocalDateTime cursorDate, Long cursorId) {
+        if (cursorDate == null || cursorId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("transactionDate"), cursorDate),
+                cb.and(
+                        cb.equal(root.get("transactionDate"), cursorDate),
+                        cb.lessThan(root.get("id"), cursorId)));
+    }
+}
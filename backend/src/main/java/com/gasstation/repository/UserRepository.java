@@ -1,15 +1,27 @@
 package com.gasstation.repository;
 
 import com.gasstation.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    /** Authentication: the principal is built from the roles. */
+    @EntityGraph("User.withRoles")
     Optional<User> findByUsername(String username);
+
+    @EntityGraph("User.withRoles")
+    Optional<User> findWithRolesById(Long id);
+
+    @EntityGraph("User.withRoles")
+    @Query("SELECT u FROM User u")
+    List<User> findAllWithRoles();
     
     Optional<User> findByEmail(String email);
     
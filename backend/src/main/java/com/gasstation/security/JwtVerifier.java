@@ -0,0 +1,123 @@
+package com.gasstation.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies a bearer token once per request and hands back its claims.
+ *
+ * <p>A POS client sends the same token on every call for hours, so verified
+ * tokens are remembered by their SHA-256 digest until they expire. A repeat
+ * request then costs one digest and a map lookup, with no base64, JSON or
+ * HMAC work. Only tokens that passed full verification are ever cached. The
+ * cache is bounded; when it is full, expired entries are dropped first and
+ * then arbitrary ones.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${app.security.jwt.verified-cache-size:1024}")
+    private int maxCacheSize;
+
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    public JwtVerifier() {
+    }
+
+    /** For use outside the container (benchmarks, tools). */
+    public JwtVerifier(JwtUtils jwtUtils, int maxCacheSize) {
+        this.jwtUtils = jwtUtils;
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Returns the verified claims, or {@code null} if the token is invalid or
+     * expired. Failures are logged here so callers need no try/catch.
+     */
+    public Claims verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verified.remove(digest, cached);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(token);
+        } catch (ExpiredJwtException e) {
+            logger.debug("JWT token is expired: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null && maxCacheSize > 0) {
+            if (verified.size() >= maxCacheSize) {
+                evict(now);
+            }
+            verified.put(digest, new VerifiedToken(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    public int cacheSize() {
+        return verified.size();
+    }
+
+    private void evict(long now) {
+        verified.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() >= maxCacheSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class VerifiedToken {
+
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
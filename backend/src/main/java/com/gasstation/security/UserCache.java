@@ -0,0 +1,115 @@
+package com.gasstation.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the request path away from the users table.
+ *
+ * <p>Principals are loaded from the database at most once per TTL and kept in
+ * a map of bounded size. Every token carries the user's id and
+ * {@code token_version}; {@link #isCurrent} accepts it only while both still
+ * match the cached principal. An admin change that should end existing
+ * sessions bumps {@code token_version} in the same transaction, so the
+ * revocation survives restarts and reaches every instance: this one at once
+ * through {@link #invalidate}, the others within one TTL.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Value("${app.security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.user-cache.max-size:1000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    public UserCache() {
+    }
+
+    /** For use outside the container (benchmarks, tools). */
+    public UserCache(CustomUserDetailsService userDetailsService, long ttlSeconds, int maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.ttlSeconds = ttlSeconds;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the principal for {@code username}, loading it from the database
+     * at most once per TTL.
+     */
+    public UserPrincipal get(String username) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(username);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.principal;
+        }
+
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername(username);
+        if (principals.size() >= maxSize) {
+            evict(now);
+        }
+        principals.put(username, new CachedPrincipal(principal, now + ttlSeconds * 1000));
+        return principal;
+    }
+
+    /**
+     * True if the token was issued to the user who holds its subject now and
+     * no access change has bumped their {@code token_version} since. Tokens
+     * issued before the {@code uid} and {@code tv} claims existed cannot be
+     * checked and are refused.
+     */
+    public boolean isCurrent(Claims claims) {
+        Number userId = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        Number tokenVersion = claims.get(JwtUtils.TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        UserPrincipal current;
+        try {
+            current = get(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+        return current.getId().longValue() == userId.longValue()
+                && current.getTokenVersion() == tokenVersion.longValue();
+    }
+
+    /** Drops the cached principal so the next request reloads it. */
+    public void invalidate(String username) {
+        if (username != null) {
+            principals.remove(username);
+        }
+    }
+
+    private void evict(long now) {
+        principals.values().removeIf(cached -> cached.expiresAt <= now);
+        Iterator<String> keys = principals.keySet().iterator();
+        while (principals.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class CachedPrincipal {
+
+        private final UserPrincipal principal;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
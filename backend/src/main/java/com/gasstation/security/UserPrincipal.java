@@ -2,6 +2,7 @@ package com.gasstation.security;
 
 import com.gasstation.entity.Role;
 import com.gasstation.entity.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,15 +20,17 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
     private boolean active;
+    private Long tokenVersion;
 
     public UserPrincipal(Long id, String username, String email, String password, 
-                        Collection<? extends GrantedAuthority> authorities, boolean active) {
+                        Collection<? extends GrantedAuthority> authorities, boolean active, Long tokenVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
         this.active = active;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserPrincipal create(User user) {
@@ -41,10 +44,32 @@ public class UserPrincipal implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                user.getActive()
+                user.getActive(),
+                user.getTokenVersion()
         );
     }
 
+    /**
+     * Rebuilds the principal from verified token claims without touching the
+     * database. Returns {@code null} for tokens issued before the {@code uid}
+     * and {@code tv} claims existed.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Number id = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+        Number tokenVersion = claims.get(JwtUtils.TOKEN_VERSION_CLAIM, Number.class);
+        if (id == null || roles == null || tokenVersion == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(id.longValue(), claims.getSubject(), null, null, authorities, true,
+                tokenVersion.longValue());
+    }
+
     public Long getId() {
         return id;
     }
@@ -53,6 +78,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
     public Set<String> getRoleNames() {
         return authorities.stream()
                 .map(GrantedAuthority::getAuthority)
@@ -0,0 +1,30 @@
+package com.gasstation.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory cache updates until the database agrees with them. Run
+ * inside a transaction, the action waits for its commit and is dropped on
+ * rollback; run outside one, it runs immediately. The action itself must not
+ * defer again: Spring never runs a synchronization registered from
+ * {@code afterCommit}.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
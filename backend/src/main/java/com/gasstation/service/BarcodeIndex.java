@@ -0,0 +1,278 @@
+package com.gasstation.service;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.LotteryGame;
+import com.gasstation.entity.Product;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.LotteryGameRepository;
+import com.gasstation.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory barcode lookup for products and lottery games. Warmed at startup,
+ * kept current by the product and lottery controllers, and consulted before
+ * the database on every scan. A miss falls through to the repositories and
+ * the result is added to the index.
+ */
+@Service
+public class BarcodeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarcodeIndex.class);
+
+    public enum EntryType {
+        PRODUCT,
+        LOTTERY_GAME
+    }
+
+    public static final class Entry {
+
+        private final EntryType type;
+        private final Product product;
+        private final LotteryGame lotteryGame;
+
+        private Entry(EntryType type, Product product, LotteryGame lotteryGame) {
+            this.type = type;
+            this.product = product;
+            this.lotteryGame = lotteryGame;
+        }
+
+        public EntryType getType() {
+            return type;
+        }
+
+        public Product getProduct() {
+            return product;
+        }
+
+        public LotteryGame getLotteryGame() {
+            return lotteryGame;
+        }
+    }
+
+    private final Map<String, Entry> byBarcode = new ConcurrentHashMap<>();
+    private final Map<Long, String> productBarcodes = new ConcurrentHashMap<>();
+    private final Map<Long, String> lotteryBarcodes = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LotteryGameRepository lotteryGameRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    public void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("barcode.index.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Barcode lookups served from the in-memory index")
+                .register(meterRegistry);
+        FunctionCounter.builder("barcode.index.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Barcode lookups that fell through to the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        byBarcode.clear();
+        productBarcodes.clear();
+        lotteryBarcodes.clear();
+        productRepository.findAllWithCategory().forEach(this::putProduct);
+        lotteryGameRepository.findAll().forEach(this::putLotteryGame);
+        logger.info("Barcode index warmed with {} entries", byBarcode.size());
+    }
+
+    public Optional<Entry> lookup(String barcode) {
+        Entry entry = byBarcode.get(barcode);
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(entry);
+        }
+        misses.increment();
+        // The entry just built, not a re-read: a concurrent remove may already have dropped it from the map
+        Optional<Product> product = productRepository.findByBarcode(barcode);
+        if (product.isPresent()) {
+            return Optional.of(cacheProduct(product.get()));
+        }
+        return lotteryGameRepository.findByBarcode(barcode).map(this::cacheLotteryGame);
+    }
+
+    public Optional<Product> findProduct(String barcode) {
+        return lookup(barcode)
+                .filter(entry -> entry.getType() == EntryType.PRODUCT)
+                .map(Entry::getProduct);
+    }
+
+    public Optional<LotteryGame> findLotteryGame(String barcode) {
+        return lookup(barcode)
+                .filter(entry -> entry.getType() == EntryType.LOTTERY_GAME)
+                .map(Entry::getLotteryGame);
+    }
+
+    public void putProduct(Product product) {
+        cacheProduct(product);
+    }
+
+    /** Caches a copy of the product and returns its entry, or {@code null} if it has no barcode. */
+    private Entry cacheProduct(Product product) {
+        String previous = product.getBarcode() == null
+                ? productBarcodes.remove(product.getId())
+                : productBarcodes.put(product.getId(), product.getBarcode());
+        if (previous != null && !previous.equals(product.getBarcode())) {
+            byBarcode.remove(previous);
+        }
+        if (product.getBarcode() == null) {
+            return null;
+        }
+        Entry entry = new Entry(EntryType.PRODUCT, detachedCopy(product), null);
+        byBarcode.put(product.getBarcode(), entry);
+        return entry;
+    }
+
+    /**
+     * Applies a stock change made elsewhere (e.g. a checkout) to the cached
+     * copy without a database read. Replacing the entry through
+     * {@code computeIfPresent} keeps concurrent adjustments from losing updates.
+     */
+    public void adjustProductStock(Long productId, int delta) {
+        String barcode = productBarcodes.get(productId);
+        if (barcode == null) {
+            return;
+        }
+        byBarcode.computeIfPresent(barcode, (key, entry) -> {
+            if (entry.getType() != EntryType.PRODUCT || !productId.equals(entry.getProduct().getId())) {
+                return entry;
+            }
+            Product copy = copyWithCategory(entry.getProduct(), entry.getProduct().getCategory());
+            copy.setCurrentStock(entry.getProduct().getCurrentStock() + delta);
+            return new Entry(EntryType.PRODUCT, copy, null);
+        });
+    }
+
+    public void removeProduct(Long productId) {
+        String barcode = productBarcodes.remove(productId);
+        if (barcode != null) {
+            byBarcode.remove(barcode);
+        }
+    }
+
+    /**
+     * Re-caches every product of a category after the category itself changes,
+     * so scans never price against a stale tax rate.
+     */
+    @Transactional(readOnly = true)
+    public void refreshCategory(Long categoryId) {
+        productRepository.findByCategoryId(categoryId).forEach(this::putProduct);
+    }
+
+    public void putLotteryGame(LotteryGame game) {
+        cacheLotteryGame(game);
+    }
+
+    /** Caches a copy of the game and returns its entry, or {@code null} if it has no barcode. */
+    private Entry cacheLotteryGame(LotteryGame game) {
+        String previous = game.getBarcode() == null
+                ? lotteryBarcodes.remove(game.getId())
+                : lotteryBarcodes.put(game.getId(), game.getBarcode());
+        if (previous != null && !previous.equals(game.getBarcode())) {
+            byBarcode.remove(previous);
+        }
+        if (game.getBarcode() == null) {
+            return null;
+        }
+        Entry entry = new Entry(EntryType.LOTTERY_GAME, null, detachedCopy(game));
+        byBarcode.put(game.getBarcode(), entry);
+        return entry;
+    }
+
+    public void removeLotteryGame(Long gameId) {
+        String barcode = lotteryBarcodes.remove(gameId);
+        if (barcode != null) {
+            byBarcode.remove(barcode);
+        }
+    }
+
+    /**
+     * Cached products outlive the request that loaded them, so they must not
+     * hold Hibernate proxies or the caller's managed instances. The category is
+     * always re-resolved by id since request bodies may carry partial stubs.
+     */
+    private Product detachedCopy(Product product) {
+        Category category = product.getCategory() == null ? null : (Category) Hibernate.unproxy(product.getCategory());
+        if (category != null && category.getId() != null) {
+            // Served from the persistence context when already loaded
+            category = categoryRepository.findById(category.getId()).orElse(category);
+        }
+        Category categoryCopy = null;
+        if (category != null) {
+            categoryCopy = new Category(category.getName(), category.getTaxRate());
+            categoryCopy.setId(category.getId());
+            categoryCopy.setVersion(category.getVersion());
+            categoryCopy.setCreatedAt(category.getCreatedAt());
+            categoryCopy.setUpdatedAt(category.getUpdatedAt());
+            categoryCopy.setDescription(category.getDescription());
+            categoryCopy.setActive(category.getActive());
+        }
+        return copyWithCategory(product, categoryCopy);
+    }
+
+    /** Same reasoning as for products: the caller's managed game must not be shared across requests. */
+    private static LotteryGame detachedCopy(LotteryGame game) {
+        LotteryGame copy = new LotteryGame(game.getName(), game.getBarcode(), game.getPackCount(),
+                game.getTicketPrice(), game.getPackCost());
+        copy.setId(game.getId());
+        copy.setVersion(game.getVersion());
+        copy.setCreatedAt(game.getCreatedAt());
+        copy.setUpdatedAt(game.getUpdatedAt());
+        copy.setCurrentStock(game.getCurrentStock());
+        copy.setActive(game.getActive());
+        copy.setDescription(game.getDescription());
+        return copy;
+    }
+
+    private static Product copyWithCategory(Product product, Category category) {
+        Product copy = new Product(product.getName(), product.getBarcode(), product.getCost(), product.getPrice(), category);
+        copy.setId(product.getId());
+        copy.setVersion(product.getVersion());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        copy.setCurrentStock(product.getCurrentStock());
+        copy.setReorderThreshold(product.getReorderThreshold());
+        copy.setFoodStampEligible(product.getFoodStampEligible());
+        copy.setActive(product.getActive());
+        copy.setDescription(product.getDescription());
+        return copy;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return byBarcode.size();
+    }
+}
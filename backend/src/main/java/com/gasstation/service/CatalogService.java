@@ -0,0 +1,244 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Promotion;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Products, categories and promotions. The barcode index, search index,
+ * low-stock tracker and promotion engine are refreshed only after the write
+ * commits, so neither a rejected change nor a rolled-back one reaches the
+ * in-memory caches.
+ */
+@Service
+public class CatalogService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Products
+
+    @Transactional(readOnly = true)
+    public List<ProductSummary> findAllProducts() {
+        return productRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProductSummary> findProduct(Long id) {
+        return productRepository.findWithCategoryById(id).map(ProductSummary::from);
+    }
+
+    /** Served from the tracked set; no query. */
+    public List<ProductSummary> findLowStockProducts() {
+        return lowStockTracker.lowStock();
+    }
+
+    @Transactional
+    public Product createProduct(Product product) {
+        Product saved = productRepository.saveAndFlush(product);
+        cacheProduct(saved);
+        catalogVersions.changed(CatalogEntityType.PRODUCT);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<Product> updateProduct(Long id, Product productDetails) {
+        return productRepository.findById(id).map(product -> {
+            product.setName(productDetails.getName());
+            product.setBarcode(productDetails.getBarcode());
+            product.setPrice(productDetails.getPrice());
+            product.setCost(productDetails.getCost());
+            product.setCurrentStock(productDetails.getCurrentStock());
+            product.setReorderThreshold(productDetails.getReorderThreshold());
+            product.setCategory(productDetails.getCategory());
+            product.setActive(productDetails.getActive());
+            Product saved = productRepository.saveAndFlush(product);
+            cacheProduct(saved);
+            catalogVersions.changed(CatalogEntityType.PRODUCT);
+            return saved;
+        });
+    }
+
+    @Transactional
+    public boolean deleteProduct(Long id) {
+        if (!productRepository.existsById(id)) {
+            return false;
+        }
+        productRepository.deleteById(id);
+        productRepository.flush();
+        catalogSyncService.recordDeletion(CatalogEntityType.PRODUCT, id);
+        AfterCommit.run(() -> {
+            barcodeIndex.removeProduct(id);
+            productSearchIndex.remove(id);
+            lowStockTracker.remove(id);
+        });
+        catalogVersions.changed(CatalogEntityType.PRODUCT);
+        return true;
+    }
+
+    /**
+     * Summarizes the product while its category can still be read, then hands
+     * it to the in-memory indexes once the write has committed, so a rollback
+     * never leaves them ahead of the database.
+     */
+    private void cacheProduct(Product product) {
+        ProductSummary summary = summarize(product);
+        AfterCommit.run(() -> {
+            barcodeIndex.putProduct(product);
+            productSearchIndex.put(summary);
+            lowStockTracker.put(summary);
+        });
+    }
+
+    private ProductSummary summarize(Product product) {
+        Category category = product.getCategory();
+        if (category != null && category.getId() != null) {
+            category = categoryRepository.findById(category.getId()).orElse(category);
+        }
+        return ProductSummary.of(product, category);
+    }
+
+    // Categories
+
+    @Transactional(readOnly = true)
+    public List<Category> findAllCategories() {
+        return categoryRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Category> findCategory(Long id) {
+        return categoryRepository.findById(id);
+    }
+
+    @Transactional
+    public Category createCategory(Category category) {
+        Category saved = categoryRepository.save(category);
+        catalogVersions.changed(CatalogEntityType.CATEGORY);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<Category> updateCategory(Long id, Category categoryDetails) {
+        return categoryRepository.findById(id).map(category -> {
+            category.setName(categoryDetails.getName());
+            category.setTaxRate(categoryDetails.getTaxRate());
+            Category saved = categoryRepository.saveAndFlush(category);
+            Long categoryId = saved.getId();
+            String name = saved.getName();
+            BigDecimal taxRate = saved.getTaxRate();
+            AfterCommit.run(() -> {
+                barcodeIndex.refreshCategory(categoryId);
+                productSearchIndex.refreshCategory(categoryId, name, taxRate);
+                lowStockTracker.refreshCategory(categoryId, name, taxRate);
+            });
+            catalogVersions.changed(CatalogEntityType.CATEGORY);
+            return saved;
+        });
+    }
+
+    @Transactional
+    public boolean deleteCategory(Long id) {
+        if (!categoryRepository.existsById(id)) {
+            return false;
+        }
+        categoryRepository.deleteById(id);
+        catalogSyncService.recordDeletion(CatalogEntityType.CATEGORY, id);
+        catalogVersions.changed(CatalogEntityType.CATEGORY);
+        return true;
+    }
+
+    // Promotions
+
+    @Transactional(readOnly = true)
+    public List<Promotion> findAllPromotions() {
+        return promotionRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Promotion> findActivePromotions() {
+        return promotionRepository.findActivePromotions(LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Promotion> findPromotion(Long id) {
+        return promotionRepository.findById(id);
+    }
+
+    @Transactional
+    public Promotion createPromotion(Promotion promotion) {
+        Promotion saved = promotionRepository.saveAndFlush(promotion);
+        AfterCommit.run(promotionEngine::rebuild);
+        catalogVersions.changed(CatalogEntityType.PROMOTION);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<Promotion> updatePromotion(Long id, Promotion promotionDetails) {
+        return promotionRepository.findById(id).map(promotion -> {
+            promotion.setName(promotionDetails.getName());
+            promotion.setDescription(promotionDetails.getDescription());
+            promotion.setPromotionType(promotionDetails.getPromotionType());
+            promotion.setDiscountValue(promotionDetails.getDiscountValue());
+            promotion.setStartDate(promotionDetails.getStartDate());
+            promotion.setEndDate(promotionDetails.getEndDate());
+            promotion.setActive(promotionDetails.getActive());
+            promotion.setMinPurchaseAmount(promotionDetails.getMinPurchaseAmount());
+            promotion.setEligibleProductIds(promotionDetails.getEligibleProductIds());
+            promotion.setEligibleCategoryIds(promotionDetails.getEligibleCategoryIds());
+            Promotion saved = promotionRepository.saveAndFlush(promotion);
+            AfterCommit.run(promotionEngine::rebuild);
+            catalogVersions.changed(CatalogEntityType.PROMOTION);
+            return saved;
+        });
+    }
+
+    @Transactional
+    public boolean deletePromotion(Long id) {
+        if (!promotionRepository.existsById(id)) {
+            return false;
+        }
+        promotionRepository.deleteById(id);
+        promotionRepository.flush();
+        catalogSyncService.recordDeletion(CatalogEntityType.PROMOTION, id);
+        AfterCommit.run(promotionEngine::rebuild);
+        catalogVersions.changed(CatalogEntityType.PROMOTION);
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.CatalogChanges;
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.CatalogTombstone;
+import com.gasstation.entity.Category;
+import com.gasstation.repository.CatalogTombstoneRepository;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.FuelPriceRepository;
+import com.gasstation.repository.LotteryGameRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta catalog sync for lane terminals: everything created, updated or
+ * deleted since a watermark the lane got from its previous sync.
+ *
+ * <p>Changes are found by {@code updatedAt}, which every write bumps along
+ * with {@code version}, including the bulk stock updates. A row's
+ * {@code updatedAt} is taken before its transaction commits, so a sync can
+ * miss a write that commits a moment later with an earlier time. The
+ * watermark handed out therefore trails the sync by
+ * {@code app.catalog.sync.overlap-seconds}; rows in that window come again on
+ * the next sync, which is harmless as the lane upserts them.
+ *
+ * <p>Deletions are kept as {@link CatalogTombstone}s for
+ * {@code app.catalog.sync.tombstone-retention-days}. A lane with no watermark,
+ * or one older than that, gets a full snapshot.
+ */
+@Service
+public class CatalogSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSyncService.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private LotteryGameRepository lotteryGameRepository;
+
+    @Autowired
+    private FuelPriceRepository fuelPriceRepository;
+
+    @Autowired
+    private CatalogTombstoneRepository catalogTombstoneRepository;
+
+    @Value("${app.catalog.sync.overlap-seconds:30}")
+    private long overlapSeconds;
+
+    @Value("${app.catalog.sync.tombstone-retention-days:30}")
+    private long retentionDays;
+
+    /** Changes since {@code since}, or the whole catalog if it is null or too old. */
+    @Transactional(readOnly = true)
+    public CatalogChanges changesSince(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermark = now.minusSeconds(overlapSeconds).truncatedTo(ChronoUnit.MILLIS);
+        if (since == null || since.isBefore(now.minusDays(retentionDays))) {
+            return new CatalogChanges(watermark, true,
+                    productRepository.findAllSummaries(),
+                    categoryRepository.findAll(),
+                    promotionRepository.findAll(),
+                    lotteryGameRepository.findAllSummaries(),
+                    fuelPriceRepository.findAllSummaries(),
+                    Map.of());
+        }
+
+        List<Category> categories = categoryRepository.findByUpdatedAtAfter(since);
+        return new CatalogChanges(watermark, false,
+                changedProducts(since, categories),
+                categories,
+                promotionRepository.findByUpdatedAtAfter(since),
+                lotteryGameRepository.findSummariesUpdatedAfter(since),
+                fuelPriceRepository.findSummariesUpdatedAfter(since),
+                deletedSince(since));
+    }
+
+    /** Call in the deleting transaction, so the tombstone commits with the delete. */
+    @Transactional
+    public void recordDeletion(CatalogEntityType entityType, Long entityId) {
+        catalogTombstoneRepository.save(new CatalogTombstone(entityType, entityId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = catalogTombstoneRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} catalog tombstones", purged);
+        }
+    }
+
+    /**
+     * Products changed themselves, plus every product of a changed category:
+     * the summaries carry the category's name and tax rate.
+     */
+    private List<ProductSummary> changedProducts(LocalDateTime since, List<Category> changedCategories) {
+        List<ProductSummary> changed = productRepository.findSummariesUpdatedAfter(since);
+        if (changedCategories.isEmpty()) {
+            return changed;
+        }
+        Map<Long, ProductSummary> byId = new LinkedHashMap<>();
+        changed.forEach(product -> byId.put(product.id(), product));
+        productRepository.findSummariesByCategoryIdIn(changedCategories.stream().map(Category::getId).toList())
+                .forEach(product -> byId.putIfAbsent(product.id(), product));
+        List<ProductSummary> products = new ArrayList<>(byId.values());
+        products.sort(Comparator.comparing(ProductSummary::id));
+        return products;
+    }
+
+    private Map<CatalogEntityType, List<Long>> deletedSince(LocalDateTime since) {
+        Map<CatalogEntityType, List<Long>> deleted = new EnumMap<>(CatalogEntityType.class);
+        for (CatalogTombstone tombstone : catalogTombstoneRepository.findByCreatedAtAfter(since)) {
+            deleted.computeIfAbsent(tombstone.getEntityType(), type -> new ArrayList<>()).add(tombstone.getEntityId());
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gasstation.service;
+
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.CatalogVersion;
+import com.gasstation.repository.CatalogVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A change counter per catalog table, so read endpoints can answer
+ * {@code If-None-Match} with 304 before running the catalog query or
+ * serializing anything.
+ *
+ * <p>The counters are rows of {@code catalog_versions}, so every instance
+ * hands out the same ETag for the same data and a restart changes nothing.
+ * Catalog edits, imports and inventory movements call {@link #changed};
+ * inside a transaction the row is bumped just before the commit, so the new
+ * counter becomes visible together with the new rows. Readers take the ETag
+ * before querying, so a write committing in between only costs one extra
+ * full response.
+ *
+ * <p>Sales, voids and offline uploads do not bump anything. Every lane would
+ * otherwise update the same row on every sale, serializing checkouts on its
+ * lock through the commit and changing the product ETag so often that lanes
+ * would hardly ever get a 304. The price is that stock figures in a product
+ * list revalidated with 304 can lag behind sales.
+ */
+@Component
+public class CatalogVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersions.class);
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Creates the counters a ddl-auto schema starts without, before the first
+     * request can read or bump them; V11 seeds them on PostgreSQL.
+     */
+    @PostConstruct
+    public void createMissingCounters() {
+        Set<CatalogEntityType> present = EnumSet.noneOf(CatalogEntityType.class);
+        catalogVersionRepository.findAll().forEach(version -> present.add(version.getEntityType()));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (CatalogEntityType type : CatalogEntityType.values()) {
+            if (present.contains(type)) {
+                continue;
+            }
+            try {
+                template.executeWithoutResult(status -> catalogVersionRepository.saveAndFlush(
+                        new CatalogVersion(type, System.currentTimeMillis())));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Catalog version counter for {} was created by another instance", type);
+            }
+        }
+    }
+
+    /** Records a write to {@code type}'s table as part of the current transaction, or on its own without one. */
+    public void changed(CatalogEntityType type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> bump(type));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.types.add(type);
+    }
+
+    /** Strong ETag covering the given tables; changes whenever any of them is written. */
+    public String etag(CatalogEntityType... types) {
+        Map<CatalogEntityType, Long> revisions = new EnumMap<>(CatalogEntityType.class);
+        catalogVersionRepository.findAll().forEach(version -> revisions.put(version.getEntityType(), version.getRevision()));
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                etag.append('-');
+            }
+            etag.append(revisions.getOrDefault(types[i], 0L));
+        }
+        return etag.append('"').toString();
+    }
+
+    private void bump(CatalogEntityType type) {
+        catalogVersionRepository.bump(type, LocalDateTime.now());
+    }
+
+    /** Tables written by the current transaction. */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Set<CatalogEntityType> types = EnumSet.noneOf(CatalogEntityType.class);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // In enum order, so transactions writing several tables lock their rows in the same order
+            types.forEach(CatalogVersions.this::bump);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersions.this);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.CheckoutItemRequest;
+import com.gasstation.dto.CheckoutRequest;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.IdempotencyKey;
+import com.gasstation.entity.InventoryTransaction;
+import com.gasstation.entity.InventoryTransactionType;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.entity.User;
+import com.gasstation.monitoring.PosMetrics;
+import com.gasstation.repository.IdempotencyKeyRepository;
+import com.gasstation.repository.InventoryTransactionRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.TransactionRepository;
+import com.gasstation.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a cart into a persisted sale. Everything happens in one DB transaction:
+ * the cart is validated and priced from the catalog, the transaction, its items
+ * and the SALE inventory movements are inserted, and stock for the whole cart is
+ * taken with a single conditional UPDATE.
+ */
+@Service
+public class CheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutService.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionNumberGenerator transactionNumberGenerator;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
+    @Autowired
+    private TaxEngine taxEngine;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private PosMetrics posMetrics;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Checks out a cart for the given cashier. Transient concurrency failures
+     * (optimistic version conflicts, deadlocks between lanes) roll back and are
+     * retried from scratch with fresh catalog reads. The receipt is built
+     * before the transaction commits, while its cashier and lines are still
+     * attached.
+     *
+     * @throws IllegalArgumentException if the cart references unknown or inactive products
+     * @throws InsufficientStockException if any line cannot be fulfilled
+     */
+    public TransactionSummary checkout(CheckoutRequest request, Long cashierId) {
+        return checkout(request, mergeLines(request.getItems()), cashierId, null, null);
+    }
+
+    /**
+     * Checks out a cart at most once per cashier and idempotency key. A retry
+     * with the same key and cart returns the original receipt without pricing
+     * or inserting anything; see {@link IdempotencyStore}.
+     *
+     * @throws IdempotencyKeyConflictException if the key was used for a different cart
+     *         or its first request is still running
+     */
+    public IdempotencyStore.Outcome checkout(CheckoutRequest request, Long cashierId, String idempotencyKey) {
+        Map<Long, Integer> quantities = mergeLines(request.getItems());
+        String requestHash = IdempotencyStore.hash(request, quantities);
+        IdempotencyStore.Outcome outcome = idempotencyStore.execute(cashierId, idempotencyKey, requestHash,
+                () -> checkout(request, quantities, cashierId, idempotencyKey, requestHash));
+        if (outcome.replayed()) {
+            posMetrics.checkoutReplayed();
+        }
+        return outcome;
+    }
+
+    private TransactionSummary checkout(CheckoutRequest request, Map<Long, Integer> quantities, Long cashierId,
+                                        String idempotencyKey, String requestHash) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        salesRollupService.ensureRow(LocalDate.now(), request.getPaymentMethod());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                TransactionSummary receipt = template.execute(status -> TransactionSummary.from(
+                        placeOrder(request, quantities, cashierId, idempotencyKey, requestHash)));
+                quantities.forEach((productId, quantity) -> {
+                    barcodeIndex.adjustProductStock(productId, -quantity);
+                    productSearchIndex.adjustStock(productId, -quantity);
+                    lowStockTracker.adjustStock(productId, -quantity);
+                });
+                posMetrics.saleCompleted(quantities.values().stream().mapToLong(Integer::longValue).sum());
+                return receipt;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Checkout attempt {} hit a concurrency conflict, retrying: {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    private Transaction placeOrder(CheckoutRequest request, Map<Long, Integer> quantities, Long cashierId,
+                                   String idempotencyKey, String requestHash) {
+        String transactionNumber = transactionNumberGenerator.next();
+        if (idempotencyKey != null) {
+            // First statement of the transaction, so a duplicate fails before any work is done
+            idempotencyKeyRepository.saveAndFlush(
+                    new IdempotencyKey(cashierId, idempotencyKey, requestHash, transactionNumber));
+        }
+
+        Map<Long, Product> products = productRepository.findAllWithCategoryByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Long> unknown = new ArrayList<>();
+        List<Long> shortOnStock = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null || !Boolean.TRUE.equals(product.getActive())) {
+                unknown.add(line.getKey());
+            } else if (product.getCurrentStock() < line.getValue()) {
+                shortOnStock.add(line.getKey());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown or inactive products " + unknown);
+        }
+        if (!shortOnStock.isEmpty()) {
+            throw new InsufficientStockException(shortOnStock);
+        }
+
+        User cashier = userRepository.getReferenceById(cashierId);
+        Transaction transaction = new Transaction(transactionNumber, cashier, request.getPaymentMethod());
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setNotes(request.getNotes());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            transaction.getItems().add(new TransactionItem(line.getValue(), product.getPrice(), product, transaction));
+        }
+        applyPromotions(transaction, taxEngine.total(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+
+        List<InventoryTransaction> movements = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            InventoryTransaction movement = new InventoryTransaction(
+                    InventoryTransactionType.SALE, line.getValue(), products.get(line.getKey()), cashier);
+            movement.setNotes("Sale transaction " + saved.getTransactionNumber());
+            movements.add(movement);
+        }
+        inventoryTransactionRepository.saveAll(movements);
+
+        // Contended rows are touched last so their locks are held only until commit.
+        // One statement for the whole cart; a short count means another lane got there first.
+        int decremented = productRepository.decrementStock(quantities);
+        if (decremented != quantities.size()) {
+            throw new InsufficientStockException(new ArrayList<>(quantities.keySet()));
+        }
+        salesRollupService.record(null, saved);
+
+        return saved;
+    }
+
+    /**
+     * Collapses repeated scans of the same product into one line, keeping the
+     * order in which products were first scanned.
+     */
+    static Map<Long, Integer> mergeLines(List<CheckoutItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CheckoutItemRequest item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Each line needs a product and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Applies the running promotions to an already totalled sale. Tax stays
+     * on the undiscounted amounts, as the POS page has always shown it.
+     */
+    private void applyPromotions(Transaction transaction, TaxEngine.Totals totals) {
+        List<PromotionEngine.CartLine> lines = new ArrayList<>(transaction.getItems().size());
+        for (TransactionItem item : transaction.getItems()) {
+            Product product = item.getProduct();
+            lines.add(new PromotionEngine.CartLine(product.getId(),
+                    product.getCategory() == null ? null : product.getCategory().getId(), item.getTotalPrice()));
+        }
+        BigDecimal discount = promotionEngine.price(lines).discountAmount();
+        transaction.setDiscountAmount(discount);
+        transaction.setTotalAmount(Money.toAmount(totals.totalCents() - Money.toCents(discount)));
+    }
+
+    /**
+     * Sets line totals, subtotal, tax and total (before discounts) from the
+     * items' unit prices and their categories' tax rates.
+     */
+    public void calculateTotals(Transaction transaction) {
+        taxEngine.total(transaction);
+    }
+}
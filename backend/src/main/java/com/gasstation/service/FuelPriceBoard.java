@@ -0,0 +1,148 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.FuelPriceSummary;
+import com.gasstation.entity.FuelType;
+import com.gasstation.repository.FuelPriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * The price in effect for every fuel type, read lock-free by every lane.
+ *
+ * <p>The board is an immutable {@link EnumMap} behind one volatile reference,
+ * so a reader sees either the whole old board or the whole new one and never
+ * a mix. Future-dated prices are held in a timeline. A one-shot task is
+ * scheduled for the earliest pending {@code effectiveDate}; when it fires,
+ * every price due by then is applied in a single swap and the next task is
+ * scheduled. Readers also apply due prices themselves if they arrive first,
+ * so a late scheduler thread can never leave an old price on the pump.
+ *
+ * <p>The whole state is reloaded from the database at startup and whenever
+ * {@code FuelController} changes a price, once that change has committed.
+ */
+@Service
+public class FuelPriceBoard {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuelPriceBoard.class);
+
+    @Autowired
+    private FuelPriceRepository fuelPriceRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private volatile State state = new State(Collections.unmodifiableMap(new EnumMap<>(FuelType.class)),
+            new TreeMap<>());
+
+    private ScheduledFuture<?> pendingSwitch;
+
+    /** Current board plus the prices still waiting for their effective date. */
+    private static final class State {
+
+        private final Map<FuelType, FuelPriceSummary> current;
+        private final NavigableMap<LocalDateTime, List<FuelPriceSummary>> upcoming;
+
+        private State(Map<FuelType, FuelPriceSummary> current,
+                      NavigableMap<LocalDateTime, List<FuelPriceSummary>> upcoming) {
+            this.current = current;
+            this.upcoming = upcoming;
+        }
+
+        private LocalDateTime nextSwitch() {
+            return upcoming.isEmpty() ? null : upcoming.firstKey();
+        }
+    }
+
+    public Map<FuelType, FuelPriceSummary> current() {
+        State snapshot = state;
+        LocalDateTime next = snapshot.nextSwitch();
+        if (next != null && !next.isAfter(LocalDateTime.now())) {
+            snapshot = advance();
+        }
+        return snapshot.current;
+    }
+
+    public Optional<FuelPriceSummary> current(FuelType fuelType) {
+        return Optional.ofNullable(current().get(fuelType));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<FuelType, FuelPriceSummary> current = new EnumMap<>(FuelType.class);
+        NavigableMap<LocalDateTime, List<FuelPriceSummary>> upcoming = new TreeMap<>();
+
+        fuelPriceRepository.findByActiveTrue().stream()
+                .map(FuelPriceSummary::from)
+                .forEach(price -> {
+                    if (price.effectiveDate().isAfter(now)) {
+                        upcoming.computeIfAbsent(price.effectiveDate(), date -> new ArrayList<>()).add(price);
+                    } else {
+                        current.merge(price.fuelType(), price, FuelPriceBoard::later);
+                    }
+                });
+
+        state = new State(Collections.unmodifiableMap(current), upcoming);
+        logger.info("Fuel price board loaded: {} current, {} scheduled", current.size(), upcoming.size());
+        scheduleNextSwitch();
+    }
+
+    /** Applies every scheduled price whose effective date has passed, in one swap. */
+    private synchronized State advance() {
+        LocalDateTime now = LocalDateTime.now();
+        State snapshot = state;
+        NavigableMap<LocalDateTime, List<FuelPriceSummary>> due = snapshot.upcoming.headMap(now, true);
+        if (due.isEmpty()) {
+            return snapshot;
+        }
+
+        Map<FuelType, FuelPriceSummary> current = new EnumMap<>(FuelType.class);
+        current.putAll(snapshot.current);
+        due.values().forEach(prices -> prices.forEach(price -> current.merge(price.fuelType(), price, FuelPriceBoard::later)));
+        NavigableMap<LocalDateTime, List<FuelPriceSummary>> upcoming = new TreeMap<>(snapshot.upcoming.tailMap(now, false));
+
+        State next = new State(Collections.unmodifiableMap(current), upcoming);
+        state = next;
+        logger.info("Fuel prices switched over at {}: {}", now, current.values());
+        scheduleNextSwitch();
+        return next;
+    }
+
+    private synchronized void scheduleNextSwitch() {
+        if (pendingSwitch != null) {
+            pendingSwitch.cancel(false);
+            pendingSwitch = null;
+        }
+        LocalDateTime next = state.nextSwitch();
+        if (next != null) {
+            pendingSwitch = taskScheduler.schedule(this::advance, next.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private static FuelPriceSummary later(FuelPriceSummary a, FuelPriceSummary b) {
+        int byDate = a.effectiveDate().compareTo(b.effectiveDate());
+        if (byDate != 0) {
+            return byDate > 0 ? a : b;
+        }
+        return a.id() >= b.id() ? a : b;
+    }
+}
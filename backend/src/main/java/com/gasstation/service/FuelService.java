@@ -0,0 +1,132 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.FuelDeliverySummary;
+import com.gasstation.dto.FuelPriceSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.FuelDelivery;
+import com.gasstation.entity.FuelPrice;
+import com.gasstation.repository.FuelDeliveryRepository;
+import com.gasstation.repository.FuelPriceRepository;
+import com.gasstation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fuel deliveries and prices. Price changes reload the {@link FuelPriceBoard}
+ * after they are flushed.
+ */
+@Service
+public class FuelService {
+
+    @Autowired
+    private FuelDeliveryRepository fuelDeliveryRepository;
+
+    @Autowired
+    private FuelPriceRepository fuelPriceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FuelPriceBoard fuelPriceBoard;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Deliveries
+
+    @Transactional(readOnly = true)
+    public List<FuelDeliverySummary> findAllDeliveries() {
+        return fuelDeliveryRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<FuelDeliverySummary> findDelivery(Long id) {
+        return fuelDeliveryRepository.findById(id).map(FuelDeliverySummary::from);
+    }
+
+    @Transactional
+    public FuelDelivery createDelivery(FuelDelivery delivery, Long receivedById) {
+        delivery.setReceivedBy(userRepository.getReferenceById(receivedById));
+        return fuelDeliveryRepository.save(delivery);
+    }
+
+    @Transactional
+    public Optional<FuelDelivery> updateDelivery(Long id, FuelDelivery deliveryDetails) {
+        return fuelDeliveryRepository.findById(id).map(delivery -> {
+            delivery.setFuelType(deliveryDetails.getFuelType());
+            delivery.setGallons(deliveryDetails.getGallons());
+            delivery.setDeliveryDate(deliveryDetails.getDeliveryDate());
+            delivery.setCostPerGallon(deliveryDetails.getCostPerGallon());
+            delivery.setSupplierName(deliveryDetails.getSupplierName());
+            delivery.setDeliveryTicketNumber(deliveryDetails.getDeliveryTicketNumber());
+            return fuelDeliveryRepository.save(delivery);
+        });
+    }
+
+    @Transactional
+    public boolean deleteDelivery(Long id) {
+        if (!fuelDeliveryRepository.existsById(id)) {
+            return false;
+        }
+        fuelDeliveryRepository.deleteById(id);
+        return true;
+    }
+
+    // Prices
+
+    @Transactional(readOnly = true)
+    public List<FuelPriceSummary> findAllPrices() {
+        return fuelPriceRepository.findAllSummaries();
+    }
+
+    /** Served from the in-memory board; no connection is taken. */
+    public List<FuelPriceSummary> findCurrentPrices() {
+        return new ArrayList<>(fuelPriceBoard.current().values());
+    }
+
+    @Transactional
+    public FuelPrice createPrice(FuelPrice price, Long updatedById) {
+        price.setUpdatedBy(userRepository.getReferenceById(updatedById));
+        FuelPrice saved = fuelPriceRepository.saveAndFlush(price);
+        AfterCommit.run(fuelPriceBoard::reload);
+        catalogVersions.changed(CatalogEntityType.FUEL_PRICE);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<FuelPrice> updatePrice(Long id, FuelPrice priceDetails, Long updatedById) {
+        return fuelPriceRepository.findById(id).map(price -> {
+            price.setFuelType(priceDetails.getFuelType());
+            price.setPricePerGallon(priceDetails.getPricePerGallon());
+            price.setEffectiveDate(priceDetails.getEffectiveDate());
+            price.setActive(priceDetails.getActive());
+            price.setUpdatedBy(userRepository.getReferenceById(updatedById));
+            FuelPrice saved = fuelPriceRepository.saveAndFlush(price);
+            AfterCommit.run(fuelPriceBoard::reload);
+            catalogVersions.changed(CatalogEntityType.FUEL_PRICE);
+            return saved;
+        });
+    }
+
+    @Transactional
+    public boolean deletePrice(Long id) {
+        if (!fuelPriceRepository.existsById(id)) {
+            return false;
+        }
+        fuelPriceRepository.deleteById(id);
+        fuelPriceRepository.flush();
+        catalogSyncService.recordDeletion(CatalogEntityType.FUEL_PRICE, id);
+        AfterCommit.run(fuelPriceBoard::reload);
+        catalogVersions.changed(CatalogEntityType.FUEL_PRICE);
+        return true;
+    }
+}
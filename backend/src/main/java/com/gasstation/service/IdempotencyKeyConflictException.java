@@ -0,0 +1,20 @@
+package com.gasstation.service;
+
+/**
+ * Thrown when an {@code Idempotency-Key} cannot be honoured: either it was
+ * already used for a different cart, or the first request with that key is
+ * still being processed and did not finish in time.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyKeyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
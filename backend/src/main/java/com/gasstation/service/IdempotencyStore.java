@@ -0,0 +1,222 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.CheckoutRequest;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers checkouts by the {@code Idempotency-Key} their lane sent, so a
+ * re-POST after a timeout gets the original receipt instead of a second sale.
+ *
+ * <p>Three layers, cheapest first:
+ * <ol>
+ *   <li>receipts of recent keys, in a bounded map on this instance;</li>
+ *   <li>checkouts still running on this instance: a retry that arrives while
+ *       the first attempt is in flight waits for its result instead of racing it;</li>
+ *   <li>the {@code idempotency_keys} table. The checkout inserts its key row
+ *       first, in the sale's own transaction, so after a restart or on another
+ *       instance the unique constraint stops the duplicate before any pricing
+ *       or inserts, and the committed sale is looked up by number.</li>
+ * </ol>
+ *
+ * <p>Only successful checkouts are remembered. A retry of a request that
+ * failed (out of stock, bad cart) runs again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+
+    @Value("${app.pos.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.pos.idempotency.cache-size:10000}")
+    private int maxSize;
+
+    @Value("${app.pos.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    private final Map<String, Completed> completed = new ConcurrentHashMap<>();
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /** A receipt and whether it was replayed rather than produced by this call. */
+    public record Outcome(TransactionSummary receipt, boolean replayed) {
+    }
+
+    /**
+     * Runs {@code checkout} at most once per cashier and key. The checkout is
+     * expected to insert the key row itself, inside its transaction.
+     *
+     * @throws IdempotencyKeyConflictException if the key was used for a different
+     *         cart, or its first request is still running after the wait time
+     */
+    public Outcome execute(Long cashierId, String key, String requestHash, Supplier<TransactionSummary> checkout) {
+        String scope = cashierId + ":" + key;
+
+        Completed cached = completed.get(scope);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            checkHash(cached.requestHash, requestHash);
+            return new Outcome(cached.receipt, true);
+        }
+
+        CompletableFuture<TransactionSummary> result = new CompletableFuture<>();
+        InFlight running = inFlight.putIfAbsent(scope, new InFlight(requestHash, result));
+        if (running != null) {
+            checkHash(running.requestHash, requestHash);
+            return new Outcome(await(running.result), true);
+        }
+
+        try {
+            Outcome outcome;
+            try {
+                outcome = new Outcome(checkout.get(), false);
+            } catch (DataIntegrityViolationException e) {
+                // Our key row collided: the sale committed earlier, on another instance or before a restart
+                outcome = findCommitted(cashierId, key, requestHash)
+                        .map(receipt -> new Outcome(receipt, true))
+                        .orElseThrow(() -> e);
+            }
+            remember(scope, requestHash, outcome.receipt());
+            result.complete(outcome.receipt());
+            return outcome;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scope);
+        }
+    }
+
+    /**
+     * Fingerprint of what the cart asks for, independent of scan order, to
+     * tell a genuine retry from a key reused for another sale.
+     */
+    public static String hash(CheckoutRequest request, Map<Long, Integer> quantities) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getPaymentMethod()).append('|')
+                .append(request.getNotes() == null ? "" : request.getNotes()).append('|');
+        new TreeMap<>(quantities).forEach((productId, quantity) ->
+                canonical.append(productId).append('x').append(quantity).append(';'));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pos.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        completed.values().removeIf(entry -> entry.expiresAt <= now);
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Optional<TransactionSummary> findCommitted(Long cashierId, String key, String requestHash) {
+        return idempotencyKeyRepository.findByCashierIdAndIdempotencyKey(cashierId, key).flatMap(row -> {
+            checkHash(row.getRequestHash(), requestHash);
+            return transactionQueryService.findByTransactionNumber(row.getTransactionNumber());
+        });
+    }
+
+    private TransactionSummary await(CompletableFuture<TransactionSummary> result) {
+        try {
+            return result.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException("A checkout with this Idempotency-Key is still in progress", true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted while waiting for the original checkout", true);
+        } catch (ExecutionException e) {
+            // The original attempt failed; the retry gets the same answer
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void remember(String scope, String requestHash, TransactionSummary receipt) {
+        long now = System.currentTimeMillis();
+        if (completed.size() >= maxSize) {
+            evict(now);
+        }
+        completed.put(scope, new Completed(requestHash, receipt, now + TimeUnit.HOURS.toMillis(ttlHours)));
+    }
+
+    private void evict(long now) {
+        completed.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = completed.keySet().iterator();
+        while (completed.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static void checkHash(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different cart", false);
+        }
+    }
+
+    private static final class Completed {
+
+        private final String requestHash;
+        private final TransactionSummary receipt;
+        private final long expiresAt;
+
+        private Completed(String requestHash, TransactionSummary receipt, long expiresAt) {
+            this.requestHash = requestHash;
+            this.receipt = receipt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class InFlight {
+
+        private final String requestHash;
+        private final CompletableFuture<TransactionSummary> result;
+
+        private InFlight(String requestHash, CompletableFuture<TransactionSummary> result) {
+            this.requestHash = requestHash;
+            this.result = result;
+        }
+    }
+}
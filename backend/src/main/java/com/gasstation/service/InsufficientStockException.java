@@ -0,0 +1,21 @@
+package com.gasstation.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a checkout would take a product's stock below zero. Carries the
+ * offending product ids so the lane can tell the cashier which lines to fix.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds) {
+        super("Insufficient stock for products " + productIds);
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
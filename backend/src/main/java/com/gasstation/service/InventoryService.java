@@ -0,0 +1,128 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.InventoryTransaction;
+import com.gasstation.entity.InventoryTransactionType;
+import com.gasstation.entity.Product;
+import com.gasstation.repository.InventoryTransactionRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stock movements. Entities are returned with product, category and user
+ * already loaded (the {@code InventoryTransaction.report} graph) since they
+ * are serialized after the transaction has closed.
+ *
+ * <p>Recording a movement moves the product's stock: a receipt or return
+ * adds its quantity, a sale or damage takes it (never below zero), and an audit or
+ * adjustment sets stock to the counted quantity. Editing or deleting a
+ * movement afterwards only changes the record; stock is corrected with a new
+ * audit.
+ */
+@Service
+public class InventoryService {
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Transactional(readOnly = true)
+    public List<InventoryTransaction> findAll() {
+        return inventoryTransactionRepository.findAllForReport();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<InventoryTransaction> findById(Long id) {
+        return inventoryTransactionRepository.findForReportById(id);
+    }
+
+    /**
+     * Records a movement and applies it to the product's stock.
+     *
+     * @throws IllegalArgumentException if the product is unknown or the quantity missing
+     * @throws InsufficientStockException if a sale or damage takes more than is on hand
+     */
+    @Transactional
+    public InventoryTransaction create(InventoryTransaction transaction, Long userId) {
+        Long productId = transaction.getProduct() == null ? null : transaction.getProduct().getId();
+        if (productId == null || !productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("Unknown product " + productId);
+        }
+        if (transaction.getQuantity() == null) {
+            throw new IllegalArgumentException("Quantity is required");
+        }
+        applyStock(transaction.getTransactionType(), transaction.getQuantity(), productId);
+
+        // Loaded after the stock update, so the response shows the new level; both are part of it
+        Product product = productRepository.findWithCategoryById(productId).orElseThrow();
+        transaction.setProduct(product);
+        transaction.setUser(userRepository.findById(userId).orElseThrow());
+        InventoryTransaction saved = inventoryTransactionRepository.save(transaction);
+
+        ProductSummary summary = ProductSummary.from(product);
+        AfterCommit.run(() -> {
+            barcodeIndex.putProduct(product);
+            productSearchIndex.put(summary);
+            lowStockTracker.put(summary);
+        });
+        catalogVersions.changed(CatalogEntityType.PRODUCT);
+        return saved;
+    }
+
+    private void applyStock(InventoryTransactionType type, int quantity, Long productId) {
+        switch (type) {
+            case RECEIVE, RETURN -> productRepository.adjustStock(Map.of(productId, quantity));
+            case SALE, DAMAGE -> {
+                if (productRepository.decrementStock(Map.of(productId, quantity)) == 0) {
+                    throw new InsufficientStockException(List.of(productId));
+                }
+            }
+            case AUDIT, ADJUSTMENT -> productRepository.setStock(productId, quantity);
+        }
+    }
+
+    @Transactional
+    public Optional<InventoryTransaction> update(Long id, InventoryTransaction transactionDetails) {
+        return inventoryTransactionRepository.findForReportById(id).map(transaction -> {
+            transaction.setProduct(transactionDetails.getProduct());
+            transaction.setTransactionType(transactionDetails.getTransactionType());
+            transaction.setQuantity(transactionDetails.getQuantity());
+            transaction.setNotes(transactionDetails.getNotes());
+            return inventoryTransactionRepository.save(transaction);
+        });
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (!inventoryTransactionRepository.existsById(id)) {
+            return false;
+        }
+        inventoryTransactionRepository.deleteById(id);
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.LotteryGameSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.LotteryGame;
+import com.gasstation.repository.LotteryGameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class LotteryService {
+
+    @Autowired
+    private LotteryGameRepository lotteryGameRepository;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Transactional(readOnly = true)
+    public List<LotteryGameSummary> findAll() {
+        return lotteryGameRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LotteryGameSummary> findById(Long id) {
+        return lotteryGameRepository.findById(id).map(LotteryGameSummary::from);
+    }
+
+    /** Served from the barcode index; only a cache miss reaches the database. */
+    public Optional<LotteryGameSummary> findByBarcode(String barcode) {
+        return barcodeIndex.findLotteryGame(barcode).map(LotteryGameSummary::from);
+    }
+
+    @Transactional
+    public LotteryGame create(LotteryGame game) {
+        LotteryGame saved = lotteryGameRepository.saveAndFlush(game);
+        AfterCommit.run(() -> barcodeIndex.putLotteryGame(saved));
+        catalogVersions.changed(CatalogEntityType.LOTTERY_GAME);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<LotteryGame> update(Long id, LotteryGame gameDetails) {
+        return lotteryGameRepository.findById(id).map(game -> {
+            game.setName(gameDetails.getName());
+            game.setBarcode(gameDetails.getBarcode());
+            game.setTicketPrice(gameDetails.getTicketPrice());
+            game.setPackCount(gameDetails.getPackCount());
+            game.setCurrentStock(gameDetails.getCurrentStock());
+            game.setActive(gameDetails.getActive());
+            LotteryGame saved = lotteryGameRepository.saveAndFlush(game);
+            AfterCommit.run(() -> barcodeIndex.putLotteryGame(saved));
+            catalogVersions.changed(CatalogEntityType.LOTTERY_GAME);
+            return saved;
+        });
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (!lotteryGameRepository.existsById(id)) {
+            return false;
+        }
+        lotteryGameRepository.deleteById(id);
+        lotteryGameRepository.flush();
+        catalogSyncService.recordDeletion(CatalogEntityType.LOTTERY_GAME, id);
+        AfterCommit.run(() -> barcodeIndex.removeLotteryGame(id));
+        catalogVersions.changed(CatalogEntityType.LOTTERY_GAME);
+        return true;
+    }
+
+    /**
+     * Sells tickets from a game's stock. Returns the updated game, or empty
+     * if the game does not exist.
+     *
+     * @throws IllegalArgumentException if there are not enough tickets left
+     */
+    @Transactional
+    public Optional<LotteryGame> sellTickets(Long id, int quantity) {
+        return lotteryGameRepository.findById(id).map(game -> {
+            if (game.getCurrentStock() < quantity) {
+                throw new IllegalArgumentException("Not enough tickets in stock");
+            }
+            game.setCurrentStock(game.getCurrentStock() - quantity);
+            LotteryGame saved = lotteryGameRepository.saveAndFlush(game);
+            AfterCommit.run(() -> barcodeIndex.putLotteryGame(saved));
+            catalogVersions.changed(CatalogEntityType.LOTTERY_GAME);
+            return saved;
+        });
+    }
+}
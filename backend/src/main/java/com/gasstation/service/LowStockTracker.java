@@ -0,0 +1,265 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.LowStockAlert;
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The set of active products at or below their reorder threshold, kept
+ * current as stock moves instead of being queried for, and pushed to managers
+ * as products cross in and out of it.
+ *
+ * <p>Every writer of {@code current_stock} reports here next to its other
+ * cache updates: checkouts and offline uploads with the delta they applied,
+ * catalog edits, imports and inventory movements with the product as stored.
+ * Each report compares the product's level before and after (ok, low, out),
+ * so a crossing is noticed by the write that caused it, and only crossings
+ * produce alerts; sales of a product that stays low only refresh its entry.
+ *
+ * <p>Alerts go to {@code text/event-stream} subscribers from one background
+ * thread, so a slow manager's browser never holds up a checkout. Writers
+ * report only once their transaction has committed (see {@link AfterCommit}),
+ * so an alert is sent right away and never for a write that rolled back;
+ * a synchronization registered from inside another's {@code afterCommit}
+ * would never run. A new subscriber first gets the
+ * whole set as a {@code snapshot} event, then {@code alert} events.
+ */
+@Service
+public class LowStockTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockTracker.class);
+
+    private enum Level { OK, LOW, OUT }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.inventory.low-stock.subscriber-timeout-minutes:30}")
+    private long subscriberTimeoutMinutes;
+
+    @Value("${app.inventory.low-stock.max-subscribers:50}")
+    private int maxSubscribers;
+
+    /** Every product, for the level it was last seen at. */
+    private final Map<Long, ProductSummary> products = new HashMap<>();
+
+    private final Map<Long, ProductSummary> low = new HashMap<>();
+
+    /** What {@link #lowStock()} hands out; null once the set has changed. */
+    private volatile List<ProductSummary> snapshot = List.of();
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        index(productRepository.findAllSummaries());
+        logger.info("Low-stock tracker built: {} of {} products low", low.size(), products.size());
+    }
+
+    /** Replaces all tracked products without alerting. */
+    public synchronized void index(Collection<ProductSummary> all) {
+        products.clear();
+        low.clear();
+        for (ProductSummary product : all) {
+            products.put(product.id(), product);
+            if (level(product) != Level.OK) {
+                low.put(product.id(), product);
+            }
+        }
+        snapshot = null;
+    }
+
+    /** Active products at or below their reorder threshold, by id. */
+    public List<ProductSummary> lowStock() {
+        List<ProductSummary> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                List<ProductSummary> sorted = new ArrayList<>(low.values());
+                sorted.sort(Comparator.comparing(ProductSummary::id));
+                snapshot = List.copyOf(sorted);
+            }
+            return snapshot;
+        }
+    }
+
+    /** A product created or changed, as stored. */
+    public void put(ProductSummary product) {
+        LowStockAlert alert;
+        synchronized (this) {
+            alert = update(products.put(product.id(), product), product);
+        }
+        publish(alert);
+    }
+
+    public void remove(Long productId) {
+        LowStockAlert alert;
+        synchronized (this) {
+            ProductSummary previous = products.remove(productId);
+            alert = previous == null ? null : update(previous, null);
+        }
+        publish(alert);
+    }
+
+    /** Applies a sale or stock movement that changed stock by {@code delta}. */
+    public void adjustStock(Long productId, int delta) {
+        LowStockAlert alert;
+        synchronized (this) {
+            ProductSummary previous = products.get(productId);
+            if (previous == null) {
+                return;
+            }
+            ProductSummary adjusted = new ProductSummary(previous.id(), previous.name(), previous.barcode(),
+                    previous.price(), previous.cost(), stock(previous) + delta, previous.reorderThreshold(),
+                    previous.foodStampEligible(), previous.active(), previous.description(), previous.categoryId(),
+                    previous.categoryName(), previous.taxRate());
+            products.put(productId, adjusted);
+            alert = update(previous, adjusted);
+        }
+        publish(alert);
+    }
+
+    /** Re-labels the products of a renamed or re-taxed category; levels do not change. */
+    public synchronized void refreshCategory(Long categoryId, String categoryName, BigDecimal taxRate) {
+        products.replaceAll((id, product) -> !categoryId.equals(product.categoryId()) ? product
+                : new ProductSummary(product.id(), product.name(), product.barcode(), product.price(), product.cost(),
+                        product.currentStock(), product.reorderThreshold(), product.foodStampEligible(),
+                        product.active(), product.description(), categoryId, categoryName, taxRate));
+        low.replaceAll((id, product) -> products.get(id));
+        snapshot = null;
+    }
+
+    /**
+     * Opens a push channel for a manager's screen.
+     *
+     * @throws IllegalStateException if {@code app.inventory.low-stock.max-subscribers} are already connected
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many low-stock subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(subscriberTimeoutMinutes));
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        dispatcher.execute(() -> send(emitter, SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet())).name("snapshot").data(lowStock())));
+        return emitter;
+    }
+
+    /** Keeps idle connections open through proxies and finds subscribers that went away. */
+    @Scheduled(fixedDelayString = "${app.inventory.low-stock.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            dispatcher.execute(() -> subscribers.forEach(emitter -> send(emitter, SseEmitter.event().comment("ping"))));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    /** Moves the product in or out of the set; returns the alert if its level changed. Caller holds the lock. */
+    private LowStockAlert update(ProductSummary previous, ProductSummary current) {
+        Level before = level(previous);
+        Level after = level(current);
+        if (after == Level.OK) {
+            if (low.remove(previous == null ? current.id() : previous.id()) != null) {
+                snapshot = null;
+            }
+        } else {
+            low.put(current.id(), current);
+            snapshot = null;
+        }
+        if (before == after) {
+            return null;
+        }
+        LowStockAlert.Type type = switch (after) {
+            case OK -> LowStockAlert.Type.CLEARED;
+            case LOW -> LowStockAlert.Type.LOW_STOCK;
+            case OUT -> LowStockAlert.Type.OUT_OF_STOCK;
+        };
+        return new LowStockAlert(type, current == null ? previous : current, LocalDateTime.now());
+    }
+
+    private void publish(LowStockAlert alert) {
+        if (alert == null) {
+            return;
+        }
+        logger.info("{}: product {} '{}' at {} of threshold {}", alert.type(), alert.product().id(),
+                alert.product().name(), alert.product().currentStock(), alert.product().reorderThreshold());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            String id = Long.toString(eventIds.incrementAndGet());
+            // Builders are single-use: each one accumulates what it has written
+            subscribers.forEach(emitter -> send(emitter, SseEmitter.event().id(id).name("alert").data(alert)));
+        });
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Gone or already completed; the container reports the error and onError unsubscribes
+            subscribers.remove(emitter);
+        }
+    }
+
+    private static Level level(ProductSummary product) {
+        if (product == null || !Boolean.TRUE.equals(product.active())) {
+            return Level.OK;
+        }
+        int stock = stock(product);
+        int threshold = product.reorderThreshold() == null ? 0 : product.reorderThreshold();
+        if (stock > threshold) {
+            return Level.OK;
+        }
+        return stock <= 0 ? Level.OUT : Level.LOW;
+    }
+
+    private static int stock(ProductSummary product) {
+        return product.currentStock() == null ? 0 : product.currentStock();
+    }
+}
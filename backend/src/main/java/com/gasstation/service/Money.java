@@ -0,0 +1,109 @@
+package com.gasstation.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point helpers for amounts held as {@code long} cents. Totaling and tax
+ * work in cents and convert from and to {@link BigDecimal} only where values
+ * enter from or leave for the entities.
+ */
+public final class Money {
+
+    /**
+     * Decimals kept of a tax rate, which is a percentage. Matches the scale of
+     * {@code categories.tax_rate}, so every stored rate converts exactly.
+     */
+    public static final int RATE_SCALE = 4;
+
+    /**
+     * Rate units (1/10,000 percent) in a whole: cents times rate units is tax
+     * in 1/1,000,000 cent, and dividing by this gives cents.
+     */
+    public static final long RATE_UNITS_PER_UNIT = 1_000_000;
+
+    private Money() {
+    }
+
+    /** Converts an amount to cents, rounding half up if it carries more than two decimals. */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Converts a percentage such as {@code 8.875} to rate units ({@code 88750}).
+     *
+     * @throws ArithmeticException if the rate has more than {@link #RATE_SCALE}
+     *         significant decimals; it is rejected rather than rounded
+     */
+    public static long toRateUnits(BigDecimal percent) {
+        if (percent == null) {
+            return 0;
+        }
+        return percent.movePointRight(RATE_SCALE).longValueExact();
+    }
+
+    /**
+     * Cents times a rate in rate units, in units of 1/1,000,000 cent. Kept
+     * unrounded so callers choose where rounding happens.
+     *
+     * @throws ArithmeticException if the product overflows a {@code long}
+     */
+    public static long applyRate(long cents, long rateUnits) {
+        return Math.multiplyExact(cents, rateUnits);
+    }
+
+    /**
+     * Divides with the given rounding, the way {@link BigDecimal#divide(BigDecimal, RoundingMode)}
+     * would for the same values at scale 0.
+     *
+     * @throws ArithmeticException for {@link RoundingMode#UNNECESSARY} when the division is inexact
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = Long.signum(dividend) * Long.signum(divisor);
+        // Compare twice the remainder with the divisor without overflowing
+        long absRemainder = Math.abs(remainder);
+        long absDivisor = Math.abs(divisor);
+        int half = Long.compare(absRemainder, absDivisor - absRemainder);
+
+        boolean awayFromZero;
+        switch (mode) {
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = half >= 0;
+                break;
+            case HALF_DOWN:
+                awayFromZero = half > 0;
+                break;
+            case HALF_EVEN:
+                awayFromZero = half > 0 || (half == 0 && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
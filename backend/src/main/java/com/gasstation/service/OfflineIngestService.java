@@ -0,0 +1,340 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.OfflineBatchResult;
+import com.gasstation.dto.OfflineItemRequest;
+import com.gasstation.dto.OfflineTransactionRequest;
+import com.gasstation.entity.InventoryTransaction;
+import com.gasstation.entity.InventoryTransactionType;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.entity.User;
+import com.gasstation.repository.InventoryTransactionRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.TransactionRepository;
+import com.gasstation.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Store-and-forward for lanes that lost the backend: a reconnecting lane
+ * uploads the sales it captured offline in batches, and gets one status per
+ * sale back.
+ *
+ * <p>A batch is stored in chunks, each in its own transaction. Per chunk:
+ * <ul>
+ *   <li>one query finds transaction numbers that are already stored (those
+ *       sales are duplicates);</li>
+ *   <li>one query loads every product and one every cashier the chunk names;</li>
+ *   <li>sales, lines and SALE movements go out as JDBC batches (multi-row
+ *       inserts on Postgres, see {@code reWriteBatchedInserts});</li>
+ *   <li>stock for the whole chunk is adjusted with a single UPDATE, and the
+ *       daily rollup with one UPDATE per day and payment method.</li>
+ * </ul>
+ * Offline sales already happened, so stock is taken even if it goes negative.
+ * Cancelled or refunded sales are stored for the record and move no stock.
+ *
+ * <p>Only {@code app.pos.offline.max-concurrent-batches} batches are stored
+ * at once. When every slot is busy the batch is refused immediately and the
+ * lane retries later, so a fleet of lanes reconnecting together cannot pile
+ * up on the connection pool.
+ */
+@Service
+public class OfflineIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfflineIngestService.class);
+
+    private static final int MAX_TRANSACTION_NUMBER_LENGTH = 50;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private TaxEngine taxEngine;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.pos.offline.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.pos.offline.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.pos.offline.max-concurrent-batches:2}")
+    private int maxConcurrentBatches;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrentBatches);
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Stores a batch of offline sales.
+     *
+     * @param uploaderId cashier for sales that do not name one
+     * @return per-sale results, or empty when the service is at capacity and
+     *         the lane should retry later
+     * @throws IllegalArgumentException if the batch is larger than {@code app.pos.offline.max-batch-size}
+     */
+    public Optional<OfflineBatchResult> ingest(List<OfflineTransactionRequest> batch, Long uploaderId) {
+        if (batch.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + batch.size() + " exceeds the limit of " + maxBatchSize);
+        }
+        if (!permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        try {
+            OfflineBatchResult.Item[] results = new OfflineBatchResult.Item[batch.size()];
+            List<Integer> pending = validate(batch, results);
+            for (int from = 0; from < pending.size(); from += chunkSize) {
+                List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+                storeChunk(batch, chunk, uploaderId, results);
+            }
+            OfflineBatchResult result = OfflineBatchResult.of(List.of(results));
+            logger.info("Offline batch of {}: {} accepted, {} duplicates, {} rejected, {} failed", batch.size(),
+                    result.accepted(), result.duplicates(), result.rejected(), result.failed());
+            return Optional.of(result);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Checks what can be checked without the database and marks repeats
+     * within the batch. Returns the positions still to be stored.
+     */
+    private List<Integer> validate(List<OfflineTransactionRequest> batch, OfflineBatchResult.Item[] results) {
+        List<Integer> pending = new ArrayList<>(batch.size());
+        Set<String> seen = new HashSet<>();
+        LocalDateTime latest = LocalDateTime.now().plusMinutes(5);
+        for (int i = 0; i < batch.size(); i++) {
+            OfflineTransactionRequest sale = batch.get(i);
+            String number = sale == null ? null : sale.getTransactionNumber();
+            String error = sale == null ? "Empty record" : problem(sale, latest);
+            if (error != null) {
+                results[i] = rejected(number, error);
+            } else if (!seen.add(number)) {
+                results[i] = new OfflineBatchResult.Item(number, OfflineBatchResult.Status.DUPLICATE, null,
+                        "Repeated in this batch");
+            } else {
+                pending.add(i);
+            }
+        }
+        return pending;
+    }
+
+    private static String problem(OfflineTransactionRequest sale, LocalDateTime latest) {
+        String number = sale.getTransactionNumber();
+        if (number == null || number.isBlank() || number.length() > MAX_TRANSACTION_NUMBER_LENGTH) {
+            return "Transaction number must be 1 to " + MAX_TRANSACTION_NUMBER_LENGTH + " characters";
+        }
+        if (sale.getTransactionDate() == null || sale.getTransactionDate().isAfter(latest)) {
+            return "Transaction date is missing or in the future";
+        }
+        if (sale.getPaymentMethod() == null) {
+            return "Payment method is required";
+        }
+        if (sale.getStatus() == TransactionStatus.PENDING) {
+            return "Only finished sales can be uploaded";
+        }
+        if (sale.getItems() == null || sale.getItems().isEmpty()) {
+            return "Sale has no lines";
+        }
+        for (OfflineItemRequest item : sale.getItems()) {
+            if (item == null || item.getProductId() == null || item.getQuantity() == null || item.getQuantity() < 1) {
+                return "Each line needs a product and a positive quantity";
+            }
+            if (item.getUnitPrice() != null && item.getUnitPrice().signum() < 0) {
+                return "Unit prices cannot be negative";
+            }
+        }
+        return null;
+    }
+
+    private void storeChunk(List<OfflineTransactionRequest> batch, List<Integer> chunk, Long uploaderId,
+                            OfflineBatchResult.Item[] results) {
+        for (int index : chunk) {
+            OfflineTransactionRequest sale = batch.get(index);
+            salesRollupService.ensureRow(sale.getTransactionDate().toLocalDate(), sale.getPaymentMethod());
+        }
+
+        Map<Long, Integer> stockTaken = new HashMap<>();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            Map<Integer, OfflineBatchResult.Item> stored = template.execute(status -> {
+                stockTaken.clear();
+                return storeInTransaction(batch, chunk, uploaderId, stockTaken);
+            });
+            stored.forEach((index, item) -> results[index] = item);
+            stockTaken.forEach((productId, quantity) -> {
+                barcodeIndex.adjustProductStock(productId, -quantity);
+                productSearchIndex.adjustStock(productId, -quantity);
+                lowStockTracker.adjustStock(productId, -quantity);
+            });
+        } catch (DataAccessException e) {
+            // Most likely another upload of the same sales committed first; resending sorts them out
+            logger.warn("Offline chunk of {} sales failed: {}", chunk.size(), e.getMessage());
+            for (int index : chunk) {
+                results[index] = new OfflineBatchResult.Item(batch.get(index).getTransactionNumber(),
+                        OfflineBatchResult.Status.FAILED, null, "Not stored, please resend");
+            }
+        }
+    }
+
+    private Map<Integer, OfflineBatchResult.Item> storeInTransaction(List<OfflineTransactionRequest> batch,
+                                                                     List<Integer> chunk, Long uploaderId,
+                                                                     Map<Long, Integer> stockTaken) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.min(chunkSize, 100));
+        Map<Integer, OfflineBatchResult.Item> results = new HashMap<>();
+
+        Set<String> numbers = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> cashierIds = new HashSet<>();
+        for (int index : chunk) {
+            OfflineTransactionRequest sale = batch.get(index);
+            numbers.add(sale.getTransactionNumber());
+            sale.getItems().forEach(item -> productIds.add(item.getProductId()));
+            cashierIds.add(sale.getCashierId() == null ? uploaderId : sale.getCashierId());
+        }
+        Set<String> existing = new HashSet<>(transactionRepository.findExistingTransactionNumbers(numbers));
+        Map<Long, Product> products = productRepository.findAllWithCategoryByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, User> cashiers = userRepository.findAllById(cashierIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Integer, Transaction> accepted = new LinkedHashMap<>();
+        for (int index : chunk) {
+            OfflineTransactionRequest sale = batch.get(index);
+            String number = sale.getTransactionNumber();
+            if (existing.contains(number)) {
+                results.put(index, new OfflineBatchResult.Item(number, OfflineBatchResult.Status.DUPLICATE, null, null));
+                continue;
+            }
+            User cashier = cashiers.get(sale.getCashierId() == null ? uploaderId : sale.getCashierId());
+            if (cashier == null) {
+                results.put(index, rejected(number, "Unknown cashier " + sale.getCashierId()));
+                continue;
+            }
+            List<Long> unknown = sale.getItems().stream().map(OfflineItemRequest::getProductId)
+                    .filter(productId -> !products.containsKey(productId)).distinct().toList();
+            if (!unknown.isEmpty()) {
+                results.put(index, rejected(number, "Unknown products " + unknown));
+                continue;
+            }
+            accepted.put(index, toTransaction(sale, cashier, products));
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(accepted.values());
+        List<InventoryTransaction> movements = new ArrayList<>();
+        for (Transaction transaction : saved) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            for (TransactionItem item : transaction.getItems()) {
+                InventoryTransaction movement = new InventoryTransaction(InventoryTransactionType.SALE,
+                        item.getQuantity(), item.getProduct(), transaction.getCashier());
+                movement.setNotes("Offline sale " + transaction.getTransactionNumber());
+                movements.add(movement);
+                stockTaken.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        inventoryTransactionRepository.saveAll(movements);
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        stockTaken.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+        productRepository.adjustStock(deltas);
+        salesRollupService.recordAll(saved);
+
+        accepted.forEach((index, transaction) -> results.put(index, new OfflineBatchResult.Item(
+                transaction.getTransactionNumber(), OfflineBatchResult.Status.ACCEPTED, transaction.getId(), null)));
+        return results;
+    }
+
+    private Transaction toTransaction(OfflineTransactionRequest sale, User cashier, Map<Long, Product> products) {
+        Transaction transaction = new Transaction(sale.getTransactionNumber(), cashier, sale.getPaymentMethod());
+        transaction.setTransactionDate(sale.getTransactionDate());
+        transaction.setStatus(sale.getStatus() == null ? TransactionStatus.COMPLETED : sale.getStatus());
+        transaction.setNotes(sale.getNotes());
+        for (OfflineItemRequest line : sale.getItems()) {
+            Product product = products.get(line.getProductId());
+            BigDecimal unitPrice = line.getUnitPrice() == null ? product.getPrice() : line.getUnitPrice();
+            transaction.getItems().add(new TransactionItem(line.getQuantity(), unitPrice, product, transaction));
+        }
+
+        BigDecimal discount = sale.getDiscountAmount() == null ? BigDecimal.ZERO : sale.getDiscountAmount();
+        TaxEngine.Totals totals = taxEngine.total(transaction);
+        transaction.setDiscountAmount(discount);
+        if (sale.getSubtotal() != null && sale.getTaxAmount() != null && sale.getTotalAmount() != null) {
+            // What the customer was actually charged wins over today's tax rates
+            transaction.setSubtotal(sale.getSubtotal());
+            transaction.setTaxAmount(sale.getTaxAmount());
+            transaction.setTotalAmount(sale.getTotalAmount());
+        } else {
+            transaction.setTotalAmount(Money.toAmount(totals.totalCents() - Money.toCents(discount)));
+        }
+        return transaction;
+    }
+
+    private static OfflineBatchResult.Item rejected(String transactionNumber, String error) {
+        return new OfflineBatchResult.Item(transactionNumber, OfflineBatchResult.Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,183 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ScanResult;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.InventoryTransaction;
+import com.gasstation.entity.InventoryTransactionType;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.monitoring.PosMetrics;
+import com.gasstation.repository.InventoryTransactionRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Register-side operations other than checkout itself ({@link CheckoutService})
+ * and history queries ({@link TransactionQueryService}). Every change returns
+ * the receipt view, built inside the transaction so nothing lazy is left for
+ * serialization.
+ *
+ * <p>A sale holds its lines' stock exactly while it is completed, as checkout
+ * leaves it. Voiding or refunding a completed sale puts the stock back with
+ * RETURN movements; completing it again, or editing a completed sale's lines,
+ * takes what is now owed with SALE movements, refusing to go below zero.
+ * Stock, movements and the rollup change in one transaction; the in-memory
+ * catalog caches follow once it commits.
+ */
+@Service
+public class PosService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private PosMetrics posMetrics;
+
+    /**
+     * Deliberately not transactional: a cache hit is served without checking
+     * a connection out of the pool, and a miss opens its own short reads.
+     */
+    public Optional<ScanResult> scan(String barcode) {
+        Optional<ScanResult> result = barcodeIndex.lookup(barcode).map(ScanResult::from);
+        posMetrics.itemScanned(result.isPresent());
+        return result;
+    }
+
+    /** @throws InsufficientStockException if the change takes more stock than is on hand */
+    @Transactional
+    public Optional<TransactionSummary> updateTransaction(Long id, Transaction transactionDetails) {
+        return transactionRepository.findByIdWithItemsAndProducts(id).map(transaction -> {
+            SalesRollupService.Snapshot previous = SalesRollupService.snapshot(transaction);
+            Map<Long, Integer> heldBefore = stockHeld(transaction);
+            transaction.setItems(transactionDetails.getItems());
+            transaction.setPaymentMethod(transactionDetails.getPaymentMethod());
+            transaction.setStatus(transactionDetails.getStatus());
+            checkoutService.calculateTotals(transaction);
+            moveStock(transaction, heldBefore);
+            return TransactionSummary.from(salesRollupService.saveAndRecord(transaction, previous));
+        });
+    }
+
+    /** @throws InsufficientStockException if a voided sale's stock has been sold since */
+    @Transactional
+    public Optional<TransactionSummary> completeTransaction(Long id) {
+        return changeStatus(id, TransactionStatus.COMPLETED);
+    }
+
+    @Transactional
+    public Optional<TransactionSummary> voidTransaction(Long id) {
+        return changeStatus(id, TransactionStatus.CANCELLED);
+    }
+
+    private Optional<TransactionSummary> changeStatus(Long id, TransactionStatus status) {
+        return transactionRepository.findByIdWithItemsAndProducts(id).map(transaction -> {
+            SalesRollupService.Snapshot previous = SalesRollupService.snapshot(transaction);
+            Map<Long, Integer> heldBefore = stockHeld(transaction);
+            TransactionStatus previousStatus = transaction.getStatus();
+            transaction.setStatus(status);
+            moveStock(transaction, heldBefore);
+            if (previousStatus != status) {
+                if (status == TransactionStatus.COMPLETED) {
+                    posMetrics.saleCompleted(units(transaction));
+                } else if (status == TransactionStatus.CANCELLED) {
+                    posMetrics.saleVoided();
+                }
+            }
+            return TransactionSummary.from(salesRollupService.saveAndRecord(transaction, previous));
+        });
+    }
+
+    /**
+     * Brings stock in line with what the sale now holds: returns what it no
+     * longer holds, takes what it newly holds, and records a movement for each.
+     */
+    private void moveStock(Transaction transaction, Map<Long, Integer> heldBefore) {
+        Map<Long, Integer> deltas = new HashMap<>(heldBefore);
+        stockHeld(transaction).forEach((productId, quantity) -> deltas.merge(productId, -quantity, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> taken = new HashMap<>();
+        Map<Long, Integer> returned = new HashMap<>();
+        deltas.forEach((productId, delta) -> (delta < 0 ? taken : returned).put(productId, Math.abs(delta)));
+        if (!taken.isEmpty() && productRepository.decrementStock(taken) != taken.size()) {
+            throw new InsufficientStockException(new ArrayList<>(taken.keySet()));
+        }
+        productRepository.adjustStock(returned);
+
+        List<InventoryTransaction> movements = new ArrayList<>(deltas.size());
+        taken.forEach((productId, quantity) -> movements.add(movement(InventoryTransactionType.SALE, quantity,
+                productId, transaction, "Sale transaction ")));
+        returned.forEach((productId, quantity) -> movements.add(movement(InventoryTransactionType.RETURN, quantity,
+                productId, transaction, "Returned from transaction ")));
+        inventoryTransactionRepository.saveAll(movements);
+
+        AfterCommit.run(() -> deltas.forEach((productId, delta) -> {
+            barcodeIndex.adjustProductStock(productId, delta);
+            productSearchIndex.adjustStock(productId, delta);
+            lowStockTracker.adjustStock(productId, delta);
+        }));
+    }
+
+    private InventoryTransaction movement(InventoryTransactionType type, int quantity, Long productId,
+                                          Transaction transaction, String notes) {
+        InventoryTransaction movement = new InventoryTransaction(type, quantity,
+                productRepository.getReferenceById(productId), transaction.getCashier());
+        movement.setNotes(notes + transaction.getTransactionNumber());
+        return movement;
+    }
+
+    /** Stock the sale holds by product: its lines while completed, nothing otherwise. */
+    private static Map<Long, Integer> stockHeld(Transaction transaction) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (transaction.getStatus() == TransactionStatus.COMPLETED && transaction.getItems() != null) {
+            for (TransactionItem item : transaction.getItems()) {
+                if (item.getProduct() != null && item.getProduct().getId() != null && item.getQuantity() != null) {
+                    held.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+        return held;
+    }
+
+    private static long units(Transaction transaction) {
+        long units = 0;
+        for (TransactionItem item : transaction.getItems()) {
+            units += item.getQuantity() == null ? 0 : item.getQuantity();
+        }
+        return units;
+    }
+}
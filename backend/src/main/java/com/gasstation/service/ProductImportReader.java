@@ -0,0 +1,248 @@
+package com.gasstation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gasstation.dto.ProductImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import upload one row at a time, so memory stays flat however
+ * large the file is.
+ *
+ * <p>CSV follows RFC 4180: a header row naming the columns (any order, case
+ * and punctuation ignored, {@code barcode} required), fields optionally
+ * quoted, {@code ""} for a quote inside a quoted field, line breaks allowed
+ * inside quotes. An empty field means "not given". NDJSON is one
+ * {@link ProductImportRow} object per line. Blank lines are skipped in both.
+ *
+ * <p>A row that cannot be converted comes back with an error and the next row
+ * is read as usual. Only a broken header, or a CSV quote that never closes,
+ * ends the upload with {@link IllegalArgumentException}.
+ */
+final class ProductImportReader {
+
+    /** Longest CSV field accepted; guards against an unbalanced quote swallowing the rest of the file. */
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+            "category", "categoryid",
+            "stock", "currentstock");
+
+    private static final List<String> COLUMNS = List.of("barcode", "name", "price", "cost", "categoryid",
+            "currentstock", "reorderthreshold", "foodstampeligible", "active", "description");
+
+    /** A parsed row, or why it could not be parsed. {@code line} is where the row starts. */
+    record Row(long line, ProductImportRow values, String error) {
+    }
+
+    private final BufferedReader in;
+    private final ProductImportService.Format format;
+    private final ObjectMapper objectMapper;
+    private int[] columns;
+    private long line = 1;
+
+    private ProductImportReader(Reader in, ProductImportService.Format format, ObjectMapper objectMapper) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Opens an upload; for CSV this reads and checks the header row.
+     *
+     * @throws IllegalArgumentException if the CSV header is missing, names an
+     *         unknown column twice or at all, or has no barcode column
+     */
+    static ProductImportReader open(Reader in, ProductImportService.Format format, ObjectMapper objectMapper)
+            throws IOException {
+        ProductImportReader reader = new ProductImportReader(in, format, objectMapper);
+        if (format == ProductImportService.Format.CSV) {
+            reader.readHeader();
+        }
+        return reader;
+    }
+
+    /** The next row, or {@code null} at the end of the upload. */
+    Row next() throws IOException {
+        return format == ProductImportService.Format.CSV ? nextCsv() : nextJson();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The upload is empty; expected a header row");
+        }
+        columns = new int[header.size()];
+        boolean[] seen = new boolean[COLUMNS.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            int column = COLUMNS.indexOf(COLUMN_ALIASES.getOrDefault(name, name));
+            if (column < 0) {
+                throw new IllegalArgumentException("Unknown column '" + header.get(i) + "'; expected some of " + COLUMNS);
+            }
+            if (seen[column]) {
+                throw new IllegalArgumentException("Column '" + header.get(i) + "' appears twice");
+            }
+            seen[column] = true;
+            columns[i] = column;
+        }
+        if (!seen[0]) {
+            throw new IllegalArgumentException("The header has no barcode column");
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (fields.size() != columns.length) {
+                return new Row(start, null, "Expected " + columns.length + " fields, found " + fields.size());
+            }
+            String[] values = new String[COLUMNS.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                values[columns[i]] = value.isEmpty() ? null : value;
+            }
+            try {
+                return new Row(start, new ProductImportRow(values[0], values[1], decimal("price", values[2]),
+                        decimal("cost", values[3]), id("categoryId", values[4]),
+                        number("currentStock", values[5]), number("reorderThreshold", values[6]),
+                        flag("foodStampEligible", values[7]), flag("active", values[8]), values[9]), null);
+            } catch (IllegalArgumentException e) {
+                return new Row(start, null, e.getMessage());
+            }
+        }
+    }
+
+    private Row nextJson() throws IOException {
+        while (true) {
+            long start = line;
+            String text = in.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                ProductImportRow values = objectMapper.readValue(text, ProductImportRow.class);
+                return values == null
+                        ? new Row(start, null, "Expected a JSON object")
+                        : new Row(start, values, null);
+            } catch (JsonProcessingException e) {
+                return new Row(start, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /** One CSV record as raw fields, or {@code null} at the end of the input. */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        long start = line;
+        int c;
+        while ((c = in.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IllegalArgumentException("Line " + start + ": field longer than " + MAX_FIELD_LENGTH
+                        + " characters" + (quoted ? ", probably an unclosed quote" : ""));
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Line " + start + ": quote never closed");
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static BigDecimal decimal(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static Integer number(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static Long id(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static Boolean flag(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        };
+    }
+}
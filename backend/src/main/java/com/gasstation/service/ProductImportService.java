@@ -0,0 +1,350 @@
+package com.gasstation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gasstation.dto.ProductImportResult;
+import com.gasstation.dto.ProductImportRow;
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.entity.CatalogEntityType;
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product create and price update from a supplier or head-office file,
+ * matched to the catalog by barcode.
+ *
+ * <p>The upload is read as it arrives and stored in chunks of
+ * {@code app.catalog.import.chunk-size} rows, each in its own short
+ * transaction, so a 100,000-row file needs no more memory than one chunk and
+ * never holds locks on more than one chunk's products. Per chunk one query
+ * loads every product the chunk names; inserts and updates go out as JDBC
+ * batches. A chunk that loses an optimistic-lock race with a lane sale is
+ * retried against fresh rows; a chunk that fails otherwise is reported row by
+ * row so the file can be fixed and resent.
+ *
+ * <p>For an existing product only the fields a row gives are changed. Stock
+ * is only taken from the file for new products: on-hand counts move through
+ * sales and inventory movements, not catalog files.
+ *
+ * <p>Only {@code app.catalog.import.max-concurrent} imports run at once; the
+ * rest are refused immediately, leaving the connection pool to the lanes.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.catalog.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.catalog.import.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Imports an upload to its end, or to the first point it can no longer be
+     * read (see {@link ProductImportResult#aborted()}).
+     *
+     * @return the outcome, or empty when another import is running
+     * @throws IllegalArgumentException if the CSV header is unusable; nothing is stored
+     * @throws IOException if the upload cannot be read; chunks before that point are stored
+     */
+    public Optional<ProductImportResult> importProducts(Reader source, Format format) throws IOException {
+        if (!permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        try {
+            ProductImportReader reader = ProductImportReader.open(source, format, objectMapper);
+            Set<Long> categoryIds = categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+            Progress progress = new Progress();
+            List<ProductImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            String aborted = null;
+            try {
+                for (ProductImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                    progress.rows++;
+                    if (row.error() != null) {
+                        progress.rejected++;
+                        progress.error(row.line(), null, row.error());
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        storeChunk(chunk, categoryIds, progress);
+                        chunk.clear();
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                aborted = e.getMessage();
+            }
+            if (!chunk.isEmpty()) {
+                storeChunk(chunk, categoryIds, progress);
+            }
+            if (progress.created + progress.updated > 0) {
+                // One rebuild beats tens of thousands of single-product overlay updates
+                productSearchIndex.rebuild();
+            }
+            logger.info("Product import of {} rows: {} created, {} updated, {} unchanged, {} rejected, {} failed{}",
+                    progress.rows, progress.created, progress.updated, progress.unchanged, progress.rejected,
+                    progress.failed, aborted == null ? "" : ", aborted: " + aborted);
+            return Optional.of(new ProductImportResult(progress.rows, progress.created, progress.updated,
+                    progress.unchanged, progress.rejected, progress.failed, progress.errors, aborted));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void storeChunk(List<ProductImportReader.Row> chunk, Set<Long> categoryIds, Progress progress) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Progress stored = template.execute(status -> storeInTransaction(chunk, categoryIds));
+                progress.add(stored);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                // A sale or an edit changed one of these products since we read it; reread and reapply
+                if (attempt < MAX_ATTEMPTS) {
+                    continue;
+                }
+                fail(chunk, progress, e);
+                return;
+            } catch (DataAccessException e) {
+                fail(chunk, progress, e);
+                return;
+            }
+        }
+    }
+
+    private void fail(List<ProductImportReader.Row> chunk, Progress progress, DataAccessException e) {
+        logger.warn("Product import chunk of {} rows from line {} failed: {}", chunk.size(), chunk.get(0).line(),
+                e.getMessage());
+        progress.failed += chunk.size();
+        for (ProductImportReader.Row row : chunk) {
+            progress.error(row.line(), row.values().barcode(), "Not stored, please resend");
+        }
+    }
+
+    private Progress storeInTransaction(List<ProductImportReader.Row> chunk, Set<Long> categoryIds) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.min(chunkSize, 100));
+        Progress progress = new Progress();
+
+        Set<String> barcodes = new HashSet<>();
+        for (ProductImportReader.Row row : chunk) {
+            if (row.values().barcode() != null) {
+                barcodes.add(row.values().barcode().trim());
+            }
+        }
+        Map<String, Product> products = productRepository.findAllWithCategoryByBarcodeIn(barcodes).stream()
+                .collect(Collectors.toMap(Product::getBarcode, Function.identity()));
+
+        Map<Long, Product> changed = new HashMap<>();
+        for (ProductImportReader.Row row : chunk) {
+            ProductImportRow values = row.values();
+            String barcode = values.barcode() == null ? null : values.barcode().trim();
+            Product product = barcode == null ? null : products.get(barcode);
+            String error = problem(values, barcode, product == null, categoryIds);
+            if (error != null) {
+                progress.rejected++;
+                progress.error(row.line(), barcode, error);
+                continue;
+            }
+            if (product == null) {
+                product = productRepository.save(create(barcode, values));
+                products.put(barcode, product);
+                progress.created++;
+            } else if (apply(product, values)) {
+                progress.updated++;
+            } else {
+                progress.unchanged++;
+                continue;
+            }
+            changed.put(product.getId(), product);
+        }
+        if (!changed.isEmpty()) {
+            entityManager.flush();
+            List<ProductSummary> summaries = changed.values().stream().map(ProductSummary::from).toList();
+            AfterCommit.run(() -> {
+                changed.values().forEach(barcodeIndex::putProduct);
+                summaries.forEach(lowStockTracker::put);
+            });
+            catalogVersions.changed(CatalogEntityType.PRODUCT);
+        }
+        return progress;
+    }
+
+    private static String problem(ProductImportRow values, String barcode, boolean creating, Set<Long> categoryIds) {
+        if (barcode == null || barcode.isEmpty()) {
+            return "Barcode is required";
+        }
+        if (creating && (values.name() == null || values.price() == null || values.cost() == null
+                || values.categoryId() == null)) {
+            return "New products need a name, price, cost and category";
+        }
+        if (values.name() != null && (values.name().isBlank() || values.name().length() > MAX_NAME_LENGTH)) {
+            return "Name must be 1 to " + MAX_NAME_LENGTH + " characters";
+        }
+        if ((values.price() != null && values.price().signum() < 0) || (values.cost() != null && values.cost().signum() < 0)) {
+            return "Price and cost cannot be negative";
+        }
+        if ((values.currentStock() != null && values.currentStock() < 0)
+                || (values.reorderThreshold() != null && values.reorderThreshold() < 0)) {
+            return "Stock and reorder threshold cannot be negative";
+        }
+        if (values.categoryId() != null && !categoryIds.contains(values.categoryId())) {
+            return "Unknown category " + values.categoryId();
+        }
+        return null;
+    }
+
+    private Product create(String barcode, ProductImportRow values) {
+        Product product = new Product(values.name().trim(), barcode, values.cost(), values.price(),
+                categoryRepository.getReferenceById(values.categoryId()));
+        if (values.currentStock() != null) {
+            product.setCurrentStock(values.currentStock());
+        }
+        if (values.reorderThreshold() != null) {
+            product.setReorderThreshold(values.reorderThreshold());
+        }
+        if (values.foodStampEligible() != null) {
+            product.setFoodStampEligible(values.foodStampEligible());
+        }
+        if (values.active() != null) {
+            product.setActive(values.active());
+        }
+        product.setDescription(values.description());
+        return product;
+    }
+
+    /** Applies the fields the row gives; returns whether anything changed. */
+    private boolean apply(Product product, ProductImportRow values) {
+        boolean changed = false;
+        if (values.name() != null && !values.name().trim().equals(product.getName())) {
+            product.setName(values.name().trim());
+            changed = true;
+        }
+        if (values.price() != null && values.price().compareTo(product.getPrice()) != 0) {
+            product.setPrice(values.price());
+            changed = true;
+        }
+        if (values.cost() != null && values.cost().compareTo(product.getCost()) != 0) {
+            product.setCost(values.cost());
+            changed = true;
+        }
+        if (values.categoryId() != null && !values.categoryId().equals(product.getCategory().getId())) {
+            product.setCategory(categoryRepository.getReferenceById(values.categoryId()));
+            changed = true;
+        }
+        if (values.reorderThreshold() != null && !values.reorderThreshold().equals(product.getReorderThreshold())) {
+            product.setReorderThreshold(values.reorderThreshold());
+            changed = true;
+        }
+        if (values.foodStampEligible() != null && !values.foodStampEligible().equals(product.getFoodStampEligible())) {
+            product.setFoodStampEligible(values.foodStampEligible());
+            changed = true;
+        }
+        if (values.active() != null && !values.active().equals(product.getActive())) {
+            product.setActive(values.active());
+            changed = true;
+        }
+        if (values.description() != null && !Objects.equals(values.description(), product.getDescription())) {
+            product.setDescription(values.description());
+            changed = true;
+        }
+        return changed;
+    }
+
+    /** Running counts, for the whole import or for one chunk attempt. */
+    private final class Progress {
+
+        private long rows;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long rejected;
+        private long failed;
+        private final List<ProductImportResult.RowError> errors = new ArrayList<>();
+
+        private void error(long line, String barcode, String error) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportResult.RowError(line, barcode, error));
+            }
+        }
+
+        private void add(Progress chunk) {
+            created += chunk.created;
+            updated += chunk.updated;
+            unchanged += chunk.unchanged;
+            rejected += chunk.rejected;
+            chunk.errors.forEach(error -> error(error.line(), error.barcode(), error.error()));
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Typeahead search over product name, barcode and description, served from
+ * memory so the POS search box never scans the products table.
+ *
+ * <p>Text is lower-cased and split into words on anything that is not a
+ * letter or digit. A query term scores by where it matches, best first: the
+ * whole name, the whole barcode, the start of the name, the start of the
+ * barcode, the start of another name word, inside the name, inside the
+ * barcode, the start of a description word, inside the description. Matches
+ * inside words (what {@code LIKE %name%} found) need at least three
+ * characters. Ties go to active products, then shorter names.
+ *
+ * <p>The index is an immutable {@link Segment}: per field, a sorted word list
+ * for prefixes and trigram postings for infixes, over docs stored in tie-break
+ * order. A one-term query walks the score tiers in order and stops once it has
+ * {@code limit} hits, so a two-letter prefix matching half the catalog costs
+ * no more than a rare word. Several terms intersect their candidates and
+ * score what is left. All terms must match.
+ *
+ * <p>Catalog edits do not rebuild the segment. Changed and deleted products
+ * go into a small overlay that hides their old version in the segment and is
+ * scored linearly. Once the overlay passes {@link #MAX_OVERLAY} products it is
+ * merged into a new segment, swapped in with one volatile write. Stock levels
+ * change with every sale, so they live in a separate map of summaries and
+ * never touch the text index.
+ *
+ * <p>A full {@link #rebuild} runs under live traffic. It builds a new segment
+ * and summary map and publishes them together, so searches keep using the
+ * old ones until then. Changes reported while it reads the catalog are
+ * replayed onto the new ones before they are published.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    static final int MAX_OVERLAY = 512;
+
+    private static final int MIN_INFIX = 3;
+
+    private static final Doc TOMBSTONE = new Doc(-1L, "", "", "", false);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile State state = new State(Segment.build(List.of()), Map.of(), new ConcurrentHashMap<>());
+
+    /** One full rebuild at a time. */
+    private final Object rebuildLock = new Object();
+
+    /** Changes made since a running rebuild began reading, or null when none is running; guarded by this. */
+    private List<UnaryOperator<State>> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new ArrayList<>();
+            }
+            try {
+                index(productRepository.findAllSummaries());
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+        logger.info("Product search index built over {} products", size());
+    }
+
+    /**
+     * Replaces the whole index with the given products, then replays changes
+     * reported since {@link #rebuild} started reading them.
+     */
+    public void index(Collection<ProductSummary> products) {
+        Map<Long, ProductSummary> summaries = new ConcurrentHashMap<>(products.size() * 2);
+        List<Doc> docs = new ArrayList<>(products.size());
+        for (ProductSummary product : products) {
+            summaries.put(product.id(), product);
+            docs.add(Doc.of(product));
+        }
+        Segment segment = Segment.build(docs);
+        synchronized (this) {
+            State built = new State(segment, Map.of(), summaries);
+            if (changedDuringRebuild != null) {
+                for (UnaryOperator<State> change : changedDuringRebuild) {
+                    built = change.apply(built);
+                }
+                changedDuringRebuild.clear();
+            }
+            state = built;
+        }
+    }
+
+    public synchronized void put(ProductSummary product) {
+        apply(current -> {
+            current.summaries.put(product.id(), product);
+            return overlay(current, product.id(), Doc.of(product));
+        });
+    }
+
+    public synchronized void remove(Long productId) {
+        apply(current -> current.summaries.remove(productId) == null ? current
+                : overlay(current, productId, TOMBSTONE));
+    }
+
+    /** Applies a sale or stock movement to the returned summary; the text index is untouched. */
+    public synchronized void adjustStock(Long productId, int delta) {
+        apply(current -> {
+            current.summaries.computeIfPresent(productId, (id, product) -> new ProductSummary(product.id(),
+                    product.name(), product.barcode(), product.price(), product.cost(),
+                    (product.currentStock() == null ? 0 : product.currentStock()) + delta,
+                    product.reorderThreshold(), product.foodStampEligible(), product.active(),
+                    product.description(), product.categoryId(), product.categoryName(), product.taxRate()));
+            return current;
+        });
+    }
+
+    /** Re-labels the products of a renamed or re-taxed category. */
+    public synchronized void refreshCategory(Long categoryId, String categoryName, BigDecimal taxRate) {
+        apply(current -> {
+            current.summaries.replaceAll((id, product) -> !categoryId.equals(product.categoryId()) ? product
+                    : new ProductSummary(product.id(), product.name(), product.barcode(), product.price(),
+                            product.cost(), product.currentStock(), product.reorderThreshold(),
+                            product.foodStampEligible(), product.active(), product.description(), categoryId,
+                            categoryName, taxRate));
+            return current;
+        });
+    }
+
+    /**
+     * Best matches for {@code query}, highest score first. Blank queries match
+     * nothing.
+     */
+    public List<ProductSummary> search(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0 || limit < 1) {
+            return List.of();
+        }
+        State current = state;
+        TopHits top = new TopHits(current, limit);
+        if (terms.length == 1) {
+            top.bestMatches(terms[0]);
+        } else {
+            top.allMatches(terms);
+        }
+        for (Doc doc : current.overlay.values()) {
+            if (doc != TOMBSTONE) {
+                top.offer(doc, score(doc, terms));
+            }
+        }
+
+        List<ProductSummary> results = new ArrayList<>(limit);
+        for (Hit hit : top.ranked()) {
+            ProductSummary summary = current.summaries.get(hit.doc.id);
+            if (summary != null) {
+                results.add(summary);
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return state.summaries.size();
+    }
+
+    /** Applies a change to the published state and keeps it for a running rebuild. Caller holds the lock. */
+    private void apply(UnaryOperator<State> change) {
+        state = change.apply(state);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(change);
+        }
+    }
+
+    private static State overlay(State current, Long productId, Doc doc) {
+        Map<Long, Doc> overlay = new HashMap<>(current.overlay);
+        overlay.put(productId, doc);
+        if (overlay.size() <= MAX_OVERLAY) {
+            return new State(current.segment, overlay, current.summaries);
+        }
+        List<Doc> merged = new ArrayList<>(current.segment.docs.length + overlay.size());
+        for (Doc existing : current.segment.docs) {
+            if (!overlay.containsKey(existing.id)) {
+                merged.add(existing);
+            }
+        }
+        for (Doc changed : overlay.values()) {
+            if (changed != TOMBSTONE) {
+                merged.add(changed);
+            }
+        }
+        return new State(Segment.build(merged), Map.of(), current.summaries);
+    }
+
+    static int score(Doc doc, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int score = termScore(doc, term);
+            if (score == 0) {
+                return 0;
+            }
+            total += score;
+        }
+        if (terms.length > 1 && doc.name.startsWith(String.join(" ", terms))) {
+            total += 50;
+        }
+        return total;
+    }
+
+    /** The tiers {@link TopHits#bestMatches} walks, as a score for one doc. */
+    private static int termScore(Doc doc, String term) {
+        if (doc.name.equals(term)) {
+            return 100;
+        }
+        if (doc.barcode.equals(term)) {
+            return 90;
+        }
+        if (doc.name.startsWith(term)) {
+            return 80;
+        }
+        if (doc.barcode.startsWith(term)) {
+            return 70;
+        }
+        if (startsWord(doc.name, term)) {
+            return 60;
+        }
+        boolean infix = term.length() >= MIN_INFIX;
+        if (infix && doc.name.contains(term)) {
+            return 40;
+        }
+        if (infix && doc.barcode.contains(term)) {
+            return 30;
+        }
+        if (doc.description.startsWith(term) || startsWord(doc.description, term)) {
+            return 20;
+        }
+        return infix && doc.description.contains(term) ? 10 : 0;
+    }
+
+    /** Whether a word after the first starts with {@code term}; words are single-space separated. */
+    private static boolean startsWord(String text, String term) {
+        for (int at = text.indexOf(term, 1); at > 0; at = text.indexOf(term, at + 1)) {
+            if (text.charAt(at - 1) == ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String[] terms(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /** Lower case, with every run of non-alphanumerics collapsed to one space. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            normalized.setLength(length - 1);
+        }
+        return normalized.toString();
+    }
+
+    private static final class State {
+
+        private final Segment segment;
+        /** Product id to its current version, or {@link #TOMBSTONE}; hides the segment's copy. */
+        private final Map<Long, Doc> overlay;
+        /** What a hit returns, kept current by catalog edits and stock changes. */
+        private final Map<Long, ProductSummary> summaries;
+
+        private State(Segment segment, Map<Long, Doc> overlay, Map<Long, ProductSummary> summaries) {
+            this.segment = segment;
+            this.overlay = overlay;
+            this.summaries = summaries;
+        }
+    }
+
+    /** Normalized searchable text of one product. */
+    static final class Doc {
+
+        /** Tie-break order, best first; segments store their docs in it. */
+        private static final Comparator<Doc> RANK = Comparator.<Doc, Boolean>comparing(doc -> !doc.active)
+                .thenComparingInt(doc -> doc.name.length())
+                .thenComparing(doc -> doc.name)
+                .thenComparing(doc -> doc.id);
+
+        private final Long id;
+        private final String name;
+        private final String barcode;
+        private final String description;
+        private final boolean active;
+
+        private Doc(Long id, String name, String barcode, String description, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.barcode = barcode;
+            this.description = description;
+            this.active = active;
+        }
+
+        static Doc of(ProductSummary product) {
+            return new Doc(product.id(), normalize(product.name()),
+                    product.barcode() == null ? "" : product.barcode().toLowerCase(Locale.ROOT),
+                    normalize(product.description()), Boolean.TRUE.equals(product.active()));
+        }
+    }
+
+    private static final class Hit {
+
+        /** Lowest score last in rank; the heap evicts from its head. */
+        private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(hit -> hit.score)
+                .thenComparing((a, b) -> Doc.RANK.compare(b.doc, a.doc));
+
+        private final Doc doc;
+        private final int score;
+
+        private Hit(Doc doc, int score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    /** Collects the best {@code limit} hits of one query against one state. */
+    private static final class TopHits {
+
+        private static final Predicate<Doc> ANY = doc -> true;
+
+        private final Segment segment;
+        private final Map<Long, Doc> hidden;
+        private final int limit;
+        private final PriorityQueue<Hit> heap;
+
+        private TopHits(State state, int limit) {
+            this.segment = state.segment;
+            this.hidden = state.overlay;
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+        }
+
+        /**
+         * One term: tiers from the best score down. Each tier yields docs in
+         * rank order, so the first {@code limit} found are the segment's best.
+         */
+        void bestMatches(String term) {
+            BitSet taken = new BitSet(segment.docs.length);
+            int remaining = limit;
+            boolean infix = term.length() >= MIN_INFIX;
+            List<Tier> tiers = List.of(
+                    new Tier(100, () -> segment.nameFirstWords.exact(term), doc -> doc.name.equals(term)),
+                    new Tier(90, () -> segment.barcodes.exact(term), doc -> doc.barcode.equals(term)),
+                    new Tier(80, () -> segment.nameFirstWords.prefixed(term), ANY),
+                    new Tier(70, () -> segment.barcodes.prefixed(term), ANY),
+                    new Tier(60, () -> segment.nameOtherWords.prefixed(term), ANY),
+                    new Tier(40, () -> infix ? segment.nameGrams.containing(term) : null, doc -> doc.name.contains(term)),
+                    new Tier(30, () -> infix ? segment.barcodeGrams.containing(term) : null, doc -> doc.barcode.contains(term)),
+                    new Tier(20, () -> segment.descriptionWords.prefixed(term), ANY),
+                    new Tier(10, () -> infix ? segment.descriptionGrams.containing(term) : null,
+                            doc -> doc.description.contains(term)));
+            for (Tier tier : tiers) {
+                BitSet candidates = tier.candidates.get();
+                if (candidates == null) {
+                    continue;
+                }
+                for (int ordinal = candidates.nextSetBit(0); ordinal >= 0 && remaining > 0;
+                     ordinal = candidates.nextSetBit(ordinal + 1)) {
+                    Doc doc = segment.docs[ordinal];
+                    if (!taken.get(ordinal) && visible(doc) && tier.matches.test(doc)) {
+                        taken.set(ordinal);
+                        offer(doc, tier.score);
+                        remaining--;
+                    }
+                }
+                if (remaining == 0) {
+                    return;
+                }
+            }
+        }
+
+        /** Several terms: docs every term can match, each scored in full. */
+        void allMatches(String[] terms) {
+            BitSet candidates = null;
+            for (String term : terms) {
+                BitSet matches = segment.matching(term);
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.and(matches);
+                }
+                if (candidates.isEmpty()) {
+                    return;
+                }
+            }
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                Doc doc = segment.docs[ordinal];
+                if (visible(doc)) {
+                    offer(doc, score(doc, terms));
+                }
+            }
+        }
+
+        void offer(Doc doc, int score) {
+            if (score == 0) {
+                return;
+            }
+            Hit hit = new Hit(doc, score);
+            if (heap.size() < limit) {
+                heap.add(hit);
+            } else if (Hit.WORST_FIRST.compare(hit, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        }
+
+        Hit[] ranked() {
+            Hit[] ranked = heap.toArray(new Hit[0]);
+            Arrays.sort(ranked, Hit.WORST_FIRST.reversed());
+            return ranked;
+        }
+
+        private boolean visible(Doc doc) {
+            return hidden.isEmpty() || !hidden.containsKey(doc.id);
+        }
+
+        private record Tier(int score, Supplier<BitSet> candidates, Predicate<Doc> matches) {
+        }
+    }
+
+    /**
+     * Immutable index over a fixed set of docs, stored in {@link Doc#RANK}
+     * order. Postings are sorted arrays of doc ordinals.
+     */
+    static final class Segment {
+
+        private final Doc[] docs;
+        private final Words nameFirstWords;
+        private final Words nameOtherWords;
+        private final Words barcodes;
+        private final Words descriptionWords;
+        private final Trigrams nameGrams;
+        private final Trigrams barcodeGrams;
+        private final Trigrams descriptionGrams;
+
+        private Segment(Doc[] docs, Builder builder) {
+            this.docs = docs;
+            this.nameFirstWords = new Words(builder.nameFirstWords, docs.length);
+            this.nameOtherWords = new Words(builder.nameOtherWords, docs.length);
+            this.barcodes = new Words(builder.barcodes, docs.length);
+            this.descriptionWords = new Words(builder.descriptionWords, docs.length);
+            this.nameGrams = new Trigrams(builder.nameGrams, docs.length);
+            this.barcodeGrams = new Trigrams(builder.barcodeGrams, docs.length);
+            this.descriptionGrams = new Trigrams(builder.descriptionGrams, docs.length);
+        }
+
+        static Segment build(List<Doc> source) {
+            Doc[] docs = source.toArray(new Doc[0]);
+            Arrays.sort(docs, Doc.RANK);
+            Builder builder = new Builder();
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                builder.add(ordinal, docs[ordinal]);
+            }
+            return new Segment(docs, builder);
+        }
+
+        /** Every doc one term could score on: a superset, checked by scoring. */
+        BitSet matching(String term) {
+            BitSet matches = nameFirstWords.prefixed(term);
+            matches.or(nameOtherWords.prefixed(term));
+            matches.or(barcodes.prefixed(term));
+            matches.or(descriptionWords.prefixed(term));
+            if (term.length() >= MIN_INFIX) {
+                matches.or(nameGrams.containing(term));
+                matches.or(barcodeGrams.containing(term));
+                matches.or(descriptionGrams.containing(term));
+            }
+            return matches;
+        }
+    }
+
+    private static final class Builder {
+
+        private final TreeMap<String, Postings> nameFirstWords = new TreeMap<>();
+        private final TreeMap<String, Postings> nameOtherWords = new TreeMap<>();
+        private final TreeMap<String, Postings> barcodes = new TreeMap<>();
+        private final TreeMap<String, Postings> descriptionWords = new TreeMap<>();
+        private final Map<String, Postings> nameGrams = new HashMap<>();
+        private final Map<String, Postings> barcodeGrams = new HashMap<>();
+        private final Map<String, Postings> descriptionGrams = new HashMap<>();
+
+        private void add(int ordinal, Doc doc) {
+            if (!doc.name.isEmpty()) {
+                String[] words = doc.name.split(" ");
+                post(nameFirstWords, words[0], ordinal);
+                for (int i = 1; i < words.length; i++) {
+                    post(nameOtherWords, words[i], ordinal);
+                }
+            }
+            if (!doc.barcode.isEmpty()) {
+                post(barcodes, doc.barcode, ordinal);
+            }
+            if (!doc.description.isEmpty()) {
+                for (String word : doc.description.split(" ")) {
+                    post(descriptionWords, word, ordinal);
+                }
+            }
+            grams(nameGrams, doc.name, ordinal);
+            grams(barcodeGrams, doc.barcode, ordinal);
+            grams(descriptionGrams, doc.description, ordinal);
+        }
+
+        private static void grams(Map<String, Postings> grams, String text, int ordinal) {
+            for (int i = 0; i + MIN_INFIX <= text.length(); i++) {
+                post(grams, text.substring(i, i + MIN_INFIX), ordinal);
+            }
+        }
+
+        private static void post(Map<String, Postings> postings, String key, int ordinal) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+        }
+    }
+
+    /** Sorted distinct words of one field, for exact and prefix lookups. */
+    private static final class Words {
+
+        private final String[] words;
+        private final int[][] postings;
+        private final int docCount;
+
+        private Words(TreeMap<String, Postings> source, int docCount) {
+            this.words = source.keySet().toArray(new String[0]);
+            this.postings = new int[words.length][];
+            for (int i = 0; i < words.length; i++) {
+                postings[i] = source.get(words[i]).toArray();
+            }
+            this.docCount = docCount;
+        }
+
+        BitSet exact(String term) {
+            BitSet result = new BitSet(docCount);
+            int at = Arrays.binarySearch(words, term);
+            if (at >= 0) {
+                set(result, postings[at]);
+            }
+            return result;
+        }
+
+        BitSet prefixed(String term) {
+            BitSet result = new BitSet(docCount);
+            int from = Arrays.binarySearch(words, term);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int i = from; i < words.length && words[i].startsWith(term); i++) {
+                set(result, postings[i]);
+            }
+            return result;
+        }
+    }
+
+    /** Trigram postings of one field, for infix lookups. */
+    private static final class Trigrams {
+
+        private final Map<String, int[]> grams;
+        private final int docCount;
+
+        private Trigrams(Map<String, Postings> source, int docCount) {
+            this.grams = new HashMap<>(source.size() * 2);
+            source.forEach((gram, postings) -> grams.put(gram, postings.toArray()));
+            this.docCount = docCount;
+        }
+
+        /** Docs holding every trigram of {@code term}: a superset of those containing it. */
+        BitSet containing(String term) {
+            BitSet result = new BitSet(docCount);
+            int[][] lists = new int[term.length() - MIN_INFIX + 1][];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = grams.get(term.substring(i, i + MIN_INFIX));
+                if (lists[i] == null) {
+                    return result;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+            int[] matching = lists[0];
+            for (int i = 1; i < lists.length && matching.length > 0; i++) {
+                matching = intersect(matching, lists[i]);
+            }
+            set(result, matching);
+            return result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    private static void set(BitSet bits, int[] ordinals) {
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+    }
+
+    /** Growable sorted int list; ordinals arrive in increasing order, repeats are dropped. */
+    private static final class Postings {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
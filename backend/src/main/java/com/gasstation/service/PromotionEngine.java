@@ -0,0 +1,258 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.AppliedPromotion;
+import com.gasstation.dto.CartPrice;
+import com.gasstation.dto.CheckoutItemRequest;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Promotion;
+import com.gasstation.entity.PromotionType;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prices carts against every running promotion in a single pass.
+ *
+ * <p>Active promotions are compiled into an immutable {@link Catalog}: one
+ * inverted index from product id and one from category id to the promotions
+ * that name them, plus the list of store-wide promotions (no product or
+ * category restriction). A cart line only touches the promotions its product
+ * and category point at, so pricing costs O(items) regardless of how many
+ * promotions are configured. Store-wide promotions apply to the whole
+ * subtotal and are settled once, after the pass.
+ *
+ * <p>The catalog is rebuilt off to the side and swapped in with one volatile
+ * write, so pricing never sees a half-built index. Start and end dates are
+ * checked at pricing time, which means a scheduled promotion switches on by
+ * itself without a rebuild.
+ *
+ * <p>The rules are the ones the POS page used to apply on the client: each
+ * promotion discounts the sum of its eligible lines (a percentage of it, or a
+ * fixed amount capped at it), subject to the cart-level minimum purchase.
+ * Promotions stack, but the total discount never exceeds the subtotal.
+ */
+@Service
+public class PromotionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromotionEngine.class);
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    /** One priced cart line: the product, its category and the line total before discounts. */
+    public record CartLine(Long productId, Long categoryId, BigDecimal lineTotal) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Catalog compiled = Catalog.compile(promotionRepository.findByActiveTrue(), LocalDateTime.now());
+        catalog = compiled;
+        logger.info("Promotion engine compiled {} promotions ({} store-wide)",
+                compiled.promotions.length, compiled.storeWide.length);
+    }
+
+    /**
+     * Prices a cart of product/quantity lines, reading current prices and
+     * categories from the catalog. Repeated products are merged first.
+     */
+    @Transactional(readOnly = true)
+    public CartPrice priceCart(List<CheckoutItemRequest> items) {
+        Map<Long, Integer> quantities = CheckoutService.mergeLines(items);
+        Map<Long, Product> products = productRepository.findAllWithCategoryByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<CartLine> lines = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null || !Boolean.TRUE.equals(product.getActive())) {
+                throw new IllegalArgumentException("Unknown or inactive product " + entry.getKey());
+            }
+            lines.add(new CartLine(product.getId(),
+                    product.getCategory() == null ? null : product.getCategory().getId(),
+                    product.getPrice().multiply(BigDecimal.valueOf(entry.getValue()))));
+        }
+        return price(lines);
+    }
+
+    public CartPrice price(List<CartLine> lines) {
+        return catalog.price(lines, LocalDateTime.now());
+    }
+
+    static final class Catalog {
+
+        static final Catalog EMPTY = new Catalog(new CompiledPromotion[0], Map.of(), Map.of(), new int[0]);
+
+        private final CompiledPromotion[] promotions;
+        private final Map<Long, int[]> byProduct;
+        private final Map<Long, int[]> byCategory;
+        private final int[] storeWide;
+
+        private Catalog(CompiledPromotion[] promotions, Map<Long, int[]> byProduct,
+                        Map<Long, int[]> byCategory, int[] storeWide) {
+            this.promotions = promotions;
+            this.byProduct = byProduct;
+            this.byCategory = byCategory;
+            this.storeWide = storeWide;
+        }
+
+        static Catalog compile(List<Promotion> source, LocalDateTime now) {
+            List<CompiledPromotion> compiled = new ArrayList<>();
+            Map<Long, List<Integer>> byProduct = new HashMap<>();
+            Map<Long, List<Integer>> byCategory = new HashMap<>();
+            List<Integer> storeWide = new ArrayList<>();
+
+            for (Promotion promotion : source) {
+                if (!Boolean.TRUE.equals(promotion.getActive()) || promotion.getEndDate() == null
+                        || !promotion.getEndDate().isAfter(now)) {
+                    continue;
+                }
+                int index = compiled.size();
+                compiled.add(new CompiledPromotion(promotion));
+
+                List<Long> productIds = promotion.getEligibleProductIds();
+                List<Long> categoryIds = promotion.getEligibleCategoryIds();
+                boolean restricted = false;
+                if (productIds != null) {
+                    for (Long productId : productIds) {
+                        byProduct.computeIfAbsent(productId, id -> new ArrayList<>()).add(index);
+                        restricted = true;
+                    }
+                }
+                if (categoryIds != null) {
+                    for (Long categoryId : categoryIds) {
+                        byCategory.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(index);
+                        restricted = true;
+                    }
+                }
+                if (!restricted) {
+                    storeWide.add(index);
+                }
+            }
+
+            return new Catalog(compiled.toArray(new CompiledPromotion[0]), freeze(byProduct), freeze(byCategory),
+                    storeWide.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private static Map<Long, int[]> freeze(Map<Long, List<Integer>> index) {
+            Map<Long, int[]> frozen = new HashMap<>(index.size() * 2);
+            index.forEach((key, promotions) ->
+                    frozen.put(key, promotions.stream().mapToInt(Integer::intValue).distinct().toArray()));
+            return frozen;
+        }
+
+        CartPrice price(List<CartLine> lines, LocalDateTime now) {
+            BigDecimal subtotal = BigDecimal.ZERO;
+            // Promotion index -> sum of its eligible line totals, only for promotions the cart touches
+            Map<Integer, BigDecimal> applicable = new HashMap<>();
+
+            for (CartLine line : lines) {
+                subtotal = subtotal.add(line.lineTotal());
+                int[] viaProduct = line.productId() == null ? null : byProduct.get(line.productId());
+                int[] viaCategory = line.categoryId() == null ? null : byCategory.get(line.categoryId());
+                if (viaProduct != null) {
+                    for (int promotion : viaProduct) {
+                        applicable.merge(promotion, line.lineTotal(), BigDecimal::add);
+                    }
+                }
+                if (viaCategory != null) {
+                    for (int promotion : viaCategory) {
+                        // A line named both by product and by category counts once
+                        if (viaProduct == null || !contains(viaProduct, promotion)) {
+                            applicable.merge(promotion, line.lineTotal(), BigDecimal::add);
+                        }
+                    }
+                }
+            }
+            for (int promotion : storeWide) {
+                applicable.put(promotion, subtotal);
+            }
+
+            int[] touched = applicable.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            List<AppliedPromotion> applied = new ArrayList<>();
+            BigDecimal totalDiscount = BigDecimal.ZERO;
+            for (int index : touched) {
+                CompiledPromotion promotion = promotions[index];
+                BigDecimal amount = applicable.get(index);
+                if (amount.signum() <= 0 || !promotion.isRunning(now)
+                        || (promotion.minPurchaseAmount != null && subtotal.compareTo(promotion.minPurchaseAmount) < 0)) {
+                    continue;
+                }
+                BigDecimal discount = promotion.discountFor(amount);
+                totalDiscount = totalDiscount.add(discount);
+                applied.add(new AppliedPromotion(promotion.id, promotion.name, promotion.type,
+                        promotion.discountValue, amount, discount));
+            }
+
+            if (totalDiscount.compareTo(subtotal) > 0) {
+                totalDiscount = subtotal;
+            }
+            return new CartPrice(subtotal, totalDiscount, subtotal.subtract(totalDiscount), applied);
+        }
+
+        private static boolean contains(int[] values, int value) {
+            for (int candidate : values) {
+                if (candidate == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Immutable copy of the fields pricing needs, detached from the persistence context. */
+    private static final class CompiledPromotion {
+
+        private final Long id;
+        private final String name;
+        private final PromotionType type;
+        private final BigDecimal discountValue;
+        private final BigDecimal minPurchaseAmount;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+
+        private CompiledPromotion(Promotion promotion) {
+            this.id = promotion.getId();
+            this.name = promotion.getName();
+            this.type = promotion.getPromotionType();
+            this.discountValue = promotion.getDiscountValue() == null ? BigDecimal.ZERO : promotion.getDiscountValue();
+            this.minPurchaseAmount = promotion.getMinPurchaseAmount();
+            this.startDate = promotion.getStartDate();
+            this.endDate = promotion.getEndDate();
+        }
+
+        private boolean isRunning(LocalDateTime now) {
+            return now.isAfter(startDate) && now.isBefore(endDate);
+        }
+
+        private BigDecimal discountFor(BigDecimal amount) {
+            if (type == PromotionType.PERCENTAGE) {
+                return amount.multiply(discountValue).divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
+            }
+            return discountValue.min(amount);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.DashboardSummary;
+import com.gasstation.dto.SalesTotals;
+import com.gasstation.entity.DailySalesRollup;
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.repository.DailySalesRollupRepository;
+import com.gasstation.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code daily_sales_rollup} in step with the transactions table.
+ * Every save of a {@link Transaction} goes through {@link #saveAndRecord} so the
+ * row and its contribution to the day's totals commit together.
+ *
+ * <p>A sale contributes by its current status, on its sale date: a completed
+ * sale to the sales columns, a cancelled or refunded one ({@link #isVoid}) to
+ * the void columns with its total, an open one to nothing. The V6 backfill and
+ * the synthetic history generator apply the same rule, so a rollup rebuilt
+ * from the transactions table always matches one maintained incrementally.
+ */
+@Service
+public class SalesRollupService {
+
+    @Autowired
+    private DailySalesRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Day/payment-method rows already known to exist; rollup rows are never deleted. */
+    private final Set<String> knownRows = ConcurrentHashMap.newKeySet();
+
+    /** Whether a sale in this status counts as a void. */
+    public static boolean isVoid(TransactionStatus status) {
+        return status == TransactionStatus.CANCELLED || status == TransactionStatus.REFUNDED;
+    }
+
+    /**
+     * Captures what a transaction currently contributes to the rollup, or
+     * {@code null} for an open sale, which contributes nothing.
+     */
+    public static Snapshot snapshot(Transaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+        boolean voided = isVoid(transaction.getStatus());
+        if (transaction.getStatus() != TransactionStatus.COMPLETED && !voided) {
+            return null;
+        }
+        long itemCount = 0;
+        if (transaction.getItems() != null) {
+            for (TransactionItem item : transaction.getItems()) {
+                itemCount += item.getQuantity() == null ? 0 : item.getQuantity();
+            }
+        }
+        return new Snapshot(
+                transaction.getTransactionDate().toLocalDate(),
+                transaction.getPaymentMethod(),
+                voided,
+                itemCount,
+                orZero(transaction.getSubtotal()),
+                orZero(transaction.getTaxAmount()),
+                orZero(transaction.getDiscountAmount()),
+                orZero(transaction.getTotalAmount()));
+    }
+
+    /**
+     * Saves the transaction and folds the difference between {@code previous}
+     * (its contribution before the change, or {@code null} for a new sale) and
+     * its new state into the daily rollup.
+     */
+    @Transactional
+    public Transaction saveAndRecord(Transaction transaction, Snapshot previous) {
+        Transaction saved = transactionRepository.save(transaction);
+        record(previous, saved);
+        return saved;
+    }
+
+    /**
+     * Applies the rollup delta for an already saved transaction. Callers that
+     * manage their own statement ordering (checkout) use this directly so the
+     * contended rollup row is locked as late as possible.
+     */
+    @Transactional
+    public void record(Snapshot previous, Transaction saved) {
+        Snapshot current = snapshot(saved);
+
+        if (previous != null && previous.equals(current)) {
+            return;
+        }
+        if (previous != null && current != null && previous.sameRow(current)) {
+            // The usual void or completion: one update moves the sale between columns
+            apply(current.salesDate, current.paymentMethod, Delta.of(previous, -1).plus(Delta.of(current, 1)));
+            return;
+        }
+        if (previous != null) {
+            apply(previous.salesDate, previous.paymentMethod, Delta.of(previous, -1));
+        }
+        if (current != null) {
+            apply(current.salesDate, current.paymentMethod, Delta.of(current, 1));
+        }
+    }
+
+    /**
+     * Folds a batch of newly saved transactions into the rollup with one
+     * update per day and payment method instead of one per transaction.
+     * Rows should already exist ({@link #ensureRow}).
+     */
+    @Transactional
+    public void recordAll(List<Transaction> saved) {
+        Map<String, Snapshot> rows = new LinkedHashMap<>();
+        Map<String, Delta> sums = new HashMap<>();
+        for (Transaction transaction : saved) {
+            Snapshot current = snapshot(transaction);
+            if (current == null) {
+                continue;
+            }
+            String key = current.salesDate + "|" + current.paymentMethod;
+            rows.putIfAbsent(key, current);
+            sums.merge(key, Delta.of(current, 1), Delta::plus);
+        }
+        rows.forEach((key, row) -> apply(row.salesDate, row.paymentMethod, sums.get(key)));
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardSummary summarize(LocalDate from, LocalDate to) {
+        List<DailySalesRollup> rows = rollupRepository.findBySalesDateBetweenOrderBySalesDate(from, to);
+        DashboardSummary summary = new DashboardSummary(from, to);
+        for (DailySalesRollup row : rows) {
+            summary.getTotals().add(row);
+            summary.getByPaymentMethod().computeIfAbsent(row.getPaymentMethod(), m -> new SalesTotals()).add(row);
+            summary.getByDay().computeIfAbsent(row.getSalesDate(), d -> new SalesTotals()).add(row);
+        }
+        return summary;
+    }
+
+    private void apply(LocalDate salesDate, PaymentMethod paymentMethod, Delta delta) {
+        int updated = rollupRepository.applyDelta(salesDate, paymentMethod, delta.transactions, delta.items,
+                delta.subtotal, delta.taxAmount, delta.discountAmount, delta.totalAmount, delta.voids, delta.voidAmount);
+        if (updated == 0) {
+            createRow(salesDate, paymentMethod);
+            rollupRepository.applyDelta(salesDate, paymentMethod, delta.transactions, delta.items,
+                    delta.subtotal, delta.taxAmount, delta.discountAmount, delta.totalAmount, delta.voids,
+                    delta.voidAmount);
+        }
+    }
+
+    /**
+     * Makes sure the rollup row for the given day and payment method exists.
+     * Callers about to take row locks (checkout) call this before opening their
+     * own transaction so that creating the row never needs a second pooled
+     * connection while the first one is holding locks.
+     */
+    public void ensureRow(LocalDate salesDate, PaymentMethod paymentMethod) {
+        if (knownRows.contains(salesDate + "|" + paymentMethod)) {
+            return;
+        }
+        createRow(salesDate, paymentMethod);
+    }
+
+    /**
+     * Inserts the empty row for a new day/payment method in its own transaction.
+     * If another lane wins the race the unique constraint rejects our insert,
+     * which is fine: the row exists either way and the caller's sale is untouched.
+     */
+    private void createRow(LocalDate salesDate, PaymentMethod paymentMethod) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> {
+                if (!rollupRepository.existsBySalesDateAndPaymentMethod(salesDate, paymentMethod)) {
+                    rollupRepository.saveAndFlush(new DailySalesRollup(salesDate, paymentMethod));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another lane
+        }
+        knownRows.add(salesDate + "|" + paymentMethod);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    public static final class Snapshot {
+
+        private final LocalDate salesDate;
+        private final PaymentMethod paymentMethod;
+        private final boolean voided;
+        private final long itemCount;
+        private final BigDecimal subtotal;
+        private final BigDecimal taxAmount;
+        private final BigDecimal discountAmount;
+        private final BigDecimal totalAmount;
+
+        private Snapshot(LocalDate salesDate, PaymentMethod paymentMethod, boolean voided, long itemCount,
+                         BigDecimal subtotal, BigDecimal taxAmount, BigDecimal discountAmount, BigDecimal totalAmount) {
+            this.salesDate = salesDate;
+            this.paymentMethod = paymentMethod;
+            this.voided = voided;
+            this.itemCount = itemCount;
+            this.subtotal = subtotal;
+            this.taxAmount = taxAmount;
+            this.discountAmount = discountAmount;
+            this.totalAmount = totalAmount;
+        }
+
+        private boolean sameRow(Snapshot other) {
+            return salesDate.equals(other.salesDate) && paymentMethod == other.paymentMethod;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Snapshot)) return false;
+            Snapshot that = (Snapshot) o;
+            return voided == that.voided
+                    && itemCount == that.itemCount
+                    && salesDate.equals(that.salesDate)
+                    && paymentMethod == that.paymentMethod
+                    && subtotal.compareTo(that.subtotal) == 0
+                    && taxAmount.compareTo(that.taxAmount) == 0
+                    && discountAmount.compareTo(that.discountAmount) == 0
+                    && totalAmount.compareTo(that.totalAmount) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return salesDate.hashCode() * 31 + paymentMethod.hashCode();
+        }
+    }
+
+    /** Signed change to one rollup row. */
+    private static final class Delta {
+
+        private final long transactions;
+        private final long items;
+        private final BigDecimal subtotal;
+        private final BigDecimal taxAmount;
+        private final BigDecimal discountAmount;
+        private final BigDecimal totalAmount;
+        private final long voids;
+        private final BigDecimal voidAmount;
+
+        private Delta(long transactions, long items, BigDecimal subtotal, BigDecimal taxAmount,
+                      BigDecimal discountAmount, BigDecimal totalAmount, long voids, BigDecimal voidAmount) {
+            this.transactions = transactions;
+            this.items = items;
+            this.subtotal = subtotal;
+            this.taxAmount = taxAmount;
+            this.discountAmount = discountAmount;
+            this.totalAmount = totalAmount;
+            this.voids = voids;
+            this.voidAmount = voidAmount;
+        }
+
+        /** A sale's contribution, added ({@code sign} 1) or taken back (-1). */
+        private static Delta of(Snapshot snapshot, int sign) {
+            BigDecimal factor = BigDecimal.valueOf(sign);
+            if (snapshot.voided) {
+                return new Delta(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                        sign, snapshot.totalAmount.multiply(factor));
+            }
+            return new Delta(sign, sign * snapshot.itemCount, snapshot.subtotal.multiply(factor),
+                    snapshot.taxAmount.multiply(factor), snapshot.discountAmount.multiply(factor),
+                    snapshot.totalAmount.multiply(factor), 0, BigDecimal.ZERO);
+        }
+
+        private Delta plus(Delta other) {
+            return new Delta(transactions + other.transactions, items + other.items, subtotal.add(other.subtotal),
+                    taxAmount.add(other.taxAmount), discountAmount.add(other.discountAmount),
+                    totalAmount.add(other.totalAmount), voids + other.voids, voidAmount.add(other.voidAmount));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ServiceLogSummary;
+import com.gasstation.entity.ServiceLog;
+import com.gasstation.repository.ServiceLogRepository;
+import com.gasstation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/** Counter services (bill pay, check cashing, money orders and so on) logged at the register. */
+@Service
+public class ServiceLogService {
+
+    @Autowired
+    private ServiceLogRepository serviceLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional(readOnly = true)
+    public List<ServiceLogSummary> findAll() {
+        return serviceLogRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ServiceLogSummary> findById(Long id) {
+        return serviceLogRepository.findSummaryById(id);
+    }
+
+    @Transactional
+    public ServiceLog create(ServiceLog serviceLog, Long handledById) {
+        serviceLog.setHandledBy(userRepository.getReferenceById(handledById));
+        return serviceLogRepository.save(serviceLog);
+    }
+
+    @Transactional
+    public Optional<ServiceLog> update(Long id, ServiceLog serviceLogDetails) {
+        return serviceLogRepository.findById(id).map(serviceLog -> {
+            serviceLog.setServiceType(serviceLogDetails.getServiceType());
+            serviceLog.setAmount(serviceLogDetails.getAmount());
+            serviceLog.setCustomerReference(serviceLogDetails.getCustomerReference());
+            serviceLog.setNotes(serviceLogDetails.getNotes());
+            return serviceLogRepository.save(serviceLog);
+        });
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (!serviceLogRepository.existsById(id)) {
+            return false;
+        }
+        serviceLogRepository.deleteById(id);
+        return true;
+    }
+}
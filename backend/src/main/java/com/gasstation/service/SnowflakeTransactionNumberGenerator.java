@@ -0,0 +1,80 @@
+package com.gasstation.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style generator: 41 bits of milliseconds since 2024-01-01, 10 bits
+ * of node id and a 12 bit per-millisecond counter, rendered as fixed-width
+ * base 36 so the strings sort in the same order as the numbers.
+ *
+ * Lanes on the same node share one {@link AtomicLong} holding the last
+ * timestamp and counter; a CAS loop replaces the old global lock, and nothing
+ * goes to the database. If more than 4096 numbers are needed within one
+ * millisecond, or the clock steps backwards, the counter simply carries into
+ * the timestamp part and keeps counting forward, so numbers stay unique and
+ * monotonic on the node without sleeping.
+ */
+@Component
+public class SnowflakeTransactionNumberGenerator implements TransactionNumberGenerator {
+
+    static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "TXN-";
+    private static final int WIDTH = 13; // Long.MAX_VALUE in base 36
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /** Last issued (timestamp << SEQUENCE_BITS | sequence). */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeTransactionNumberGenerator(@Value("${app.pos.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeTransactionNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        return format(nextId());
+    }
+
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    static String format(long id) {
+        String digits = Long.toString(id, 36).toUpperCase();
+        StringBuilder number = new StringBuilder(PREFIX.length() + WIDTH).append(PREFIX);
+        for (int i = digits.length(); i < WIDTH; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.gasstation.service;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Totals a sale in {@code long} cents: line totals, subtotal and tax at each
+ * line's category rate.
+ *
+ * <p>Where tax gets rounded is a jurisdiction rule, so both the place and the
+ * mode are configured ({@code app.tax.rounding-level}, {@code app.tax.rounding-mode}).
+ * With {@link Level#INVOICE} the unrounded tax of every line is summed and
+ * rounded once, which is the old BigDecimal result rounded to cents. With
+ * {@link Level#LINE} each line's tax is rounded before summing, as some
+ * states require on the receipt.
+ *
+ * <p>Line products are expected to have their categories loaded. Lines of the
+ * same category reuse the rate converted for the previous line.
+ */
+@Service
+public class TaxEngine {
+
+    public enum Level {
+        /** Round once, on the sum of the lines' unrounded tax. */
+        INVOICE,
+        /** Round each line's tax, then sum. */
+        LINE
+    }
+
+    /** Subtotal and tax of a totalled sale, in cents. */
+    public record Totals(long subtotalCents, long taxCents) {
+
+        public long totalCents() {
+            return subtotalCents + taxCents;
+        }
+    }
+
+    private final RoundingMode roundingMode;
+    private final Level level;
+
+    public TaxEngine(@Value("${app.tax.rounding-mode:HALF_UP}") RoundingMode roundingMode,
+                     @Value("${app.tax.rounding-level:INVOICE}") Level level) {
+        if (roundingMode == RoundingMode.UNNECESSARY) {
+            throw new IllegalArgumentException("Tax rounding mode must round");
+        }
+        this.roundingMode = roundingMode;
+        this.level = level;
+    }
+
+    /**
+     * Sets every line's total price and the sale's subtotal, tax and total,
+     * ignoring any discount, and returns the amounts in cents.
+     */
+    public Totals total(Transaction transaction) {
+        long subtotal = 0;
+        long tax = 0;
+        // Unrounded tax in 1/1,000,000 cent, for invoice-level rounding
+        long unroundedTax = 0;
+
+        BigDecimal lastRate = null;
+        long lastRateUnits = 0;
+        for (TransactionItem item : transaction.getItems()) {
+            long lineCents = Math.multiplyExact(Money.toCents(item.getUnitPrice()), (long) item.getQuantity());
+            item.setTotalPrice(Money.toAmount(lineCents));
+            subtotal = Math.addExact(subtotal, lineCents);
+
+            BigDecimal rate = taxRate(item.getProduct());
+            if (rate == null) {
+                continue;
+            }
+            if (rate != lastRate) {
+                lastRateUnits = Money.toRateUnits(rate);
+                lastRate = rate;
+            }
+            long lineTax = Money.applyRate(lineCents, lastRateUnits);
+            if (level == Level.LINE) {
+                tax = Math.addExact(tax, Money.divide(lineTax, Money.RATE_UNITS_PER_UNIT, roundingMode));
+            } else {
+                unroundedTax = Math.addExact(unroundedTax, lineTax);
+            }
+        }
+        if (level == Level.INVOICE) {
+            tax = Money.divide(unroundedTax, Money.RATE_UNITS_PER_UNIT, roundingMode);
+        }
+
+        Totals totals = new Totals(subtotal, tax);
+        transaction.setSubtotal(Money.toAmount(subtotal));
+        transaction.setTaxAmount(Money.toAmount(tax));
+        transaction.setTotalAmount(Money.toAmount(totals.totalCents()));
+        return totals;
+    }
+
+    private static BigDecimal taxRate(Product product) {
+        Category category = product == null ? null : product.getCategory();
+        return category == null ? null : category.getTaxRate();
+    }
+}
@@ -0,0 +1,10 @@
+package com.gasstation.service;
+
+/**
+ * Produces the human-facing transaction number printed on receipts. Numbers
+ * must be unique across every lane and node and should sort roughly by time.
+ */
+public interface TransactionNumberGenerator {
+
+    String next();
+}
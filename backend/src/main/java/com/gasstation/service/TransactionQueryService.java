@@ -0,0 +1,86 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.TransactionCursor;
+import com.gasstation.dto.TransactionLineSummary;
+import com.gasstation.dto.TransactionPage;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.repository.TransactionRepository;
+import com.gasstation.repository.TransactionSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class TransactionQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Returns one page of transactions, newest first. The page itself is a
+     * plain keyset query over {@code (transaction_date, id)} that selects only
+     * header columns into {@link TransactionSummary}; the lines for just that
+     * page are then projected with a single {@code IN (...)} query, so the cost
+     * is bounded by the page size and nothing enters the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage findPage(LocalDateTime from, LocalDateTime to, Long cashierId,
+                                    TransactionStatus status, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TransactionCursor position = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+
+        Specification<Transaction> spec = Specification.where(TransactionSpecifications.onOrAfter(from))
+                .and(TransactionSpecifications.before(to))
+                .and(TransactionSpecifications.hasCashier(cashierId))
+                .and(TransactionSpecifications.hasStatus(status));
+        if (position != null) {
+            spec = spec.and(TransactionSpecifications.after(position.getTransactionDate(), position.getId()));
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<TransactionSummary> rows = transactionRepository.findSummaries(spec, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        if (!page.isEmpty()) {
+            Map<Long, TransactionSummary> byId = new HashMap<>();
+            for (TransactionSummary summary : page) {
+                byId.put(summary.id(), summary);
+            }
+            for (TransactionLineSummary line : transactionRepository.findLineSummariesByTransactionIdIn(byId.keySet())) {
+                byId.get(line.transactionId()).items().add(line);
+            }
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionSummary last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.transactionDate(), last.id()).encode();
+        }
+        return new TransactionPage(List.copyOf(page), nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TransactionSummary> findById(Long id) {
+        return transactionRepository.findByIdWithItemsAndProducts(id).map(TransactionSummary::from);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TransactionSummary> findByTransactionNumber(String transactionNumber) {
+        return transactionRepository.findByTransactionNumberWithItemsAndProducts(transactionNumber)
+                .map(TransactionSummary::from);
+    }
+}
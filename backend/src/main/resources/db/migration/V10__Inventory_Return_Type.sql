@@ -0,0 +1,5 @@
+-- RETURN movements put stock back when a completed sale is voided or refunded
+
+ALTER TABLE inventory_transactions DROP CONSTRAINT inventory_transactions_transaction_type_check;
+ALTER TABLE inventory_transactions ADD CONSTRAINT inventory_transactions_transaction_type_check
+    CHECK (transaction_type IN ('RECEIVE', 'AUDIT', 'SALE', 'DAMAGE', 'ADJUSTMENT', 'RETURN'));
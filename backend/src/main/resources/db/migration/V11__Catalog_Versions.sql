@@ -0,0 +1,22 @@
+-- One change counter per catalog table, behind the ETags of the catalog read endpoints.
+-- The application bumps a row in the same transaction as every write to its table;
+-- scripts that write those tables directly must bump it too, e.g.
+--   UPDATE catalog_versions SET revision = revision + 1 WHERE entity_type = 'PRODUCT';
+-- Counters start at the current time in milliseconds, so a rebuilt database never
+-- repeats an ETag handed out by the old one.
+
+CREATE TABLE catalog_versions (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(30) NOT NULL UNIQUE,
+    revision BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO catalog_versions (entity_type, revision)
+SELECT entity_type, (EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000)::BIGINT
+FROM (VALUES ('PRODUCT'), ('CATEGORY'), ('PROMOTION'), ('LOTTERY_GAME'), ('FUEL_PRICE')) AS types (entity_type);
+
+-- Pooled-lo id allocation, as for every other table (see V7)
+ALTER SEQUENCE catalog_versions_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Revocation of issued JWTs (app.security.jwt)
+-- Every token carries the user's token_version as its "tv" claim and is refused once the
+-- column has moved on. The application bumps it when a user is deactivated, renamed,
+-- given other roles or a new password; a script changing those columns directly must
+-- bump it as well.
+
+ALTER TABLE users ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
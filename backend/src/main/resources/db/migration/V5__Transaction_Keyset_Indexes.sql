@@ -0,0 +1,10 @@
+-- Indexes backing keyset pagination of /api/pos/transactions
+-- Listing is ordered by (transaction_date DESC, id DESC); the composite index lets
+-- each page be served by an index range scan regardless of table size.
+
+CREATE INDEX idx_transactions_date_id ON transactions(transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_cashier_date_id ON transactions(cashier_id, transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_status_date_id ON transactions(status, transaction_date DESC, id DESC);
+
+-- Superseded by idx_transactions_date_id
+DROP INDEX IF EXISTS idx_transactions_date;
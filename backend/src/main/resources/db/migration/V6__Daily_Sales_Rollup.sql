@@ -0,0 +1,44 @@
+-- Incrementally maintained per-day sales totals backing /api/reports/dashboard
+-- One row per (sales_date, payment_method); updated by the application whenever a
+-- transaction is saved, completed or voided.
+
+CREATE TABLE daily_sales_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    sales_date DATE NOT NULL,
+    payment_method VARCHAR(20) NOT NULL CHECK (payment_method IN ('CASH', 'CREDIT_CARD', 'DEBIT_CARD', 'EBT', 'CHECK', 'GIFT_CARD')),
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    item_count BIGINT NOT NULL DEFAULT 0,
+    subtotal DECIMAL(14,2) NOT NULL DEFAULT 0,
+    tax_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    discount_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    total_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    void_count BIGINT NOT NULL DEFAULT 0,
+    void_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    UNIQUE (sales_date, payment_method)
+);
+
+CREATE TRIGGER update_daily_sales_rollup_updated_at BEFORE UPDATE ON daily_sales_rollup FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- Backfill from existing history
+INSERT INTO daily_sales_rollup (sales_date, payment_method, transaction_count, item_count, subtotal, tax_amount,
+                                discount_amount, total_amount, void_count, void_amount)
+SELECT CAST(t.transaction_date AS DATE),
+       t.payment_method,
+       COUNT(*) FILTER (WHERE t.status = 'COMPLETED'),
+       COALESCE(SUM(i.quantity) FILTER (WHERE t.status = 'COMPLETED'), 0),
+       COALESCE(SUM(t.subtotal) FILTER (WHERE t.status = 'COMPLETED'), 0),
+       COALESCE(SUM(t.tax_amount) FILTER (WHERE t.status = 'COMPLETED'), 0),
+       COALESCE(SUM(COALESCE(t.discount_amount, 0)) FILTER (WHERE t.status = 'COMPLETED'), 0),
+       COALESCE(SUM(t.total_amount) FILTER (WHERE t.status = 'COMPLETED'), 0),
+       COUNT(*) FILTER (WHERE t.status IN ('CANCELLED', 'REFUNDED')),
+       COALESCE(SUM(t.total_amount) FILTER (WHERE t.status IN ('CANCELLED', 'REFUNDED')), 0)
+FROM transactions t
+LEFT JOIN (
+    SELECT transaction_id, SUM(quantity) AS quantity
+    FROM transaction_items
+    GROUP BY transaction_id
+) i ON i.transaction_id = t.id
+GROUP BY CAST(t.transaction_date AS DATE), t.payment_method;
@@ -0,0 +1,18 @@
+-- Switch entity ids from IDENTITY to pooled-lo sequence generation so Hibernate can
+-- batch inserts. The application now draws ids from the BIGSERIAL sequences in blocks
+-- of 50; the increment must match the allocation size Hibernate is configured with.
+-- Column defaults are left in place so hand-written inserts keep working; they take a
+-- whole block and cannot collide with ids handed out by the application.
+
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE promotions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE lottery_games_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE fuel_deliveries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE fuel_prices_id_seq INCREMENT BY 50;
+ALTER SEQUENCE service_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE daily_sales_rollup_id_seq INCREMENT BY 50;
@@ -0,0 +1,22 @@
+-- Idempotency keys for POST /api/pos/transactions
+-- A lane that times out re-sends its checkout with the same Idempotency-Key header;
+-- the key row is written in the sale's own transaction, so a retry finds either the
+-- committed sale or nothing. Rows older than app.pos.idempotency.ttl-hours are purged
+-- by the application.
+
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    cashier_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    transaction_number VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    UNIQUE (cashier_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+-- Pooled-lo id allocation, as for every other table (see V7)
+ALTER SEQUENCE idempotency_keys_id_seq INCREMENT BY 50;
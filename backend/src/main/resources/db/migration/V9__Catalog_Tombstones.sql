@@ -0,0 +1,22 @@
+-- Delta catalog sync for lane terminals (GET /api/catalog/changes)
+-- Lanes pull rows whose updated_at is past their watermark, plus tombstones for rows
+-- deleted since. Tombstones older than app.catalog.sync.tombstone-retention-days are
+-- purged by the application; older watermarks get a full snapshot.
+
+CREATE TABLE catalog_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_catalog_tombstones_created_at ON catalog_tombstones(created_at);
+
+-- Products is the one catalog table large enough for the delta scan to need an index;
+-- categories, promotions, lottery games and fuel prices are a few hundred rows at most
+CREATE INDEX idx_products_updated_at ON products(updated_at);
+
+-- Pooled-lo id allocation, as for every other table (see V7)
+ALTER SEQUENCE catalog_tombstones_id_seq INCREMENT BY 50;
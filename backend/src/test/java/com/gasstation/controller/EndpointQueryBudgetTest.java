@@ -0,0 +1,121 @@
+package com.gasstation.controller;
+
+import com.gasstation.monitoring.QueryBudget;
+import com.gasstation.repository.ProductRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the hot endpoints to the number of SQL statements they run against
+ * the seeded h2 data, so an N+1 or a lost cache shows up as a failing build
+ * rather than a slow store. Raise a budget only together with the change
+ * that legitimately needs the extra query.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class EndpointQueryBudgetTest {
+
+    private static final String COCA_COLA_BARCODE = "123456789012";
+    private static final String PEPSI_BARCODE = "123456789013";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String bearer;
+    private String twoLineCart;
+
+    @BeforeEach
+    void signIn() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(body, "$.token");
+        // The token's user is loaded once per cache TTL; budgets count the endpoint alone
+        perform(get("/api/pos/scan/" + COCA_COLA_BARCODE)).andExpect(status().isOk());
+        twoLineCart = "\"items\":[{\"productId\":" + productId(COCA_COLA_BARCODE) + ",\"quantity\":2},"
+                + "{\"productId\":" + productId(PEPSI_BARCODE) + ",\"quantity\":1}]";
+    }
+
+    @Test
+    void scanIsServedFromTheBarcodeIndex() throws Exception {
+        QueryBudget.expectAtMost(0, () -> perform(get("/api/pos/scan/" + COCA_COLA_BARCODE)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void priceCartLoadsTheCartInOneQuery() throws Exception {
+        QueryBudget.expectAtMost(1, () -> perform(post("/api/pos/price-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" + twoLineCart + "}")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void checkoutWritesTheSaleInBatches() throws Exception {
+        // The day's first sale also creates its rollup row and may draw fresh id blocks
+        checkoutTwoLines().andExpect(status().isOk());
+
+        QueryBudget.expectAtMost(7, this::checkoutTwoLines)
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void receiptIsOneJoinedQuery() throws Exception {
+        Number id = JsonPath.read(checkoutTwoLines().andReturn().getResponse().getContentAsString(), "$.id");
+
+        QueryBudget.expectAtMost(1, () -> perform(get("/api/pos/transactions/" + id)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userListFetchesRolesInTheSameQuery() throws Exception {
+        QueryBudget.expectAtMost(1, () -> perform(get("/api/users")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void inventoryListFetchesProductsAndUsersInTheSameQuery() throws Exception {
+        for (String barcode : new String[]{COCA_COLA_BARCODE, PEPSI_BARCODE}) {
+            perform(post("/api/inventory/transactions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"product\":{\"id\":" + productId(barcode) + "},\"transactionType\":\"RECEIVE\",\"quantity\":5}"))
+                    .andExpect(status().isOk());
+        }
+
+        QueryBudget.expectAtMost(1, () -> perform(get("/api/inventory/transactions")))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions checkoutTwoLines() throws Exception {
+        return perform(post("/api/pos/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"paymentMethod\":\"CASH\"," + twoLineCart + "}"));
+    }
+
+    private Long productId(String barcode) {
+        return productRepository.findByBarcode(barcode).orElseThrow().getId();
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header("Authorization", bearer));
+    }
+}
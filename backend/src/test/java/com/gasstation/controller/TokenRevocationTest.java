@@ -0,0 +1,85 @@
+package com.gasstation.controller;
+
+import com.gasstation.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tokens stop working once the user's {@code token_version} moves on, also in
+ * stateless mode. A zero cache TTL makes every request see the database the
+ * way another instance does once its cached user expires.
+ */
+@SpringBootTest(properties = {
+        "app.security.jwt.stateless=true",
+        "app.security.user-cache.ttl-seconds=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TokenRevocationTest {
+
+    private static final String CASHIER = "cashier1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deactivationEndsSessionsButNotLaterSignIns() throws Exception {
+        String admin = signIn("admin");
+        String cashier = signIn(CASHIER);
+        scan(cashier).andExpect(status().isOk());
+        Long cashierId = userRepository.findByUsername(CASHIER).orElseThrow().getId();
+
+        mockMvc.perform(put("/api/users/" + cashierId + "/deactivate").header("Authorization", admin))
+                .andExpect(status().isOk());
+        scan(cashier).andExpect(status().isUnauthorized());
+
+        mockMvc.perform(put("/api/users/" + cashierId + "/activate").header("Authorization", admin))
+                .andExpect(status().isOk());
+        scan(cashier).andExpect(status().isUnauthorized());
+        // Signed in within the same second as the change
+        scan(signIn(CASHIER)).andExpect(status().isOk());
+    }
+
+    @Test
+    void versionBumpedOutsideThisInstanceIsHonoured() throws Exception {
+        String cashier = signIn(CASHIER);
+        scan(cashier).andExpect(status().isOk());
+
+        jdbcTemplate.update("UPDATE users SET token_version = token_version + 1 WHERE username = ?", CASHIER);
+
+        scan(cashier).andExpect(status().isUnauthorized());
+        scan(signIn(CASHIER)).andExpect(status().isOk());
+    }
+
+    private String signIn(String username) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(body, "$.token");
+    }
+
+    private ResultActions scan(String bearer) throws Exception {
+        return mockMvc.perform(get("/api/pos/scan/123456789012").header("Authorization", bearer));
+    }
+}
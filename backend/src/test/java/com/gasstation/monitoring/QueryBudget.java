@@ -0,0 +1,47 @@
+package com.gasstation.monitoring;
+
+/**
+ * Fails when a block of work runs more SQL than it is allowed. Meant for
+ * tests pinning an endpoint or service method to its query budget, e.g.
+ *
+ * <pre>
+ * QueryBudget.expectAtMost(2, () -&gt; mockMvc.perform(get("/api/pos/transactions/1")));
+ * QueryBudget.expectAtMost(1, () -&gt; catalogService.findAllProducts());
+ * </pre>
+ *
+ * Everything executed on the calling thread inside the block counts,
+ * including requests dispatched through MockMvc. The block must run against
+ * the application context's DataSource so that {@link JdbcTrackingDataSource}
+ * sees the statements, which needs {@code app.monitoring.jdbc.enabled}; the
+ * h2 profile sets it.
+ */
+public final class QueryBudget {
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Exception;
+    }
+
+    private QueryBudget() {}
+
+    /**
+     * Runs {@code work} and throws {@link AssertionError} if it executed more
+     * than {@code maxStatements} SQL statements. Returns the work's result.
+     */
+    public static <T> T expectAtMost(int maxStatements, Work<T> work) throws Exception {
+        RequestJdbcStats stats = RequestJdbcStats.begin();
+        T result;
+        try {
+            result = work.run();
+        } finally {
+            RequestJdbcStats.end(stats);
+        }
+        if (stats.getStatements() > maxStatements) {
+            var repeated = stats.mostRepeatedStatement();
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + stats.getStatements() + " were executed (" + stats.getRows() + " rows); most repeated ("
+                    + repeated.getValue() + "x): " + repeated.getKey());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.CheckoutItemRequest;
+import com.gasstation.dto.CheckoutRequest;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Product;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Alerts reach subscribers from writers that report after their transaction
+ * has committed, not only from checkout.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LowStockTrackerTest {
+
+    private static final long ALERT_TIMEOUT_MS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PosService posService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void voidThatLiftsStockAboveTheThresholdSendsClearedAlert() throws Exception {
+        Product product = new Product("Low stock item", "LOWSTOCK0001", new BigDecimal("0.50"),
+                new BigDecimal("1.00"), categoryRepository.findAll().get(0));
+        product.setCurrentStock(6);
+        product.setReorderThreshold(5);
+        Long productId = catalogService.createProduct(product).getId();
+
+        CheckoutRequest sale = new CheckoutRequest();
+        sale.setPaymentMethod(PaymentMethod.CASH);
+        sale.getItems().add(new CheckoutItemRequest(productId, 2));
+        Long cashierId = userRepository.findByUsername("admin").orElseThrow().getId();
+        TransactionSummary receipt = checkoutService.checkout(sale, cashierId);
+
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/products/low-stock/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Authorization", signIn()))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        posService.voidTransaction(receipt.id());
+
+        String cleared = "\"type\":\"CLEARED\",\"product\":{\"id\":" + productId + ",";
+        long deadline = System.currentTimeMillis() + ALERT_TIMEOUT_MS;
+        while (!stream.getContentAsString().contains(cleared) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(stream.getContentAsString().contains(cleared),
+                "No CLEARED alert for product " + productId + " in: " + stream.getContentAsString());
+    }
+
+    private String signIn() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(body, "$.token");
+    }
+}
@@ -0,0 +1,99 @@
+package com.gasstation.service;
+
+import com.gasstation.config.IdGeneratorSeeder;
+import com.gasstation.dto.CheckoutItemRequest;
+import com.gasstation.dto.CheckoutRequest;
+import com.gasstation.dto.TransactionLineSummary;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.Category;
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Product;
+import com.gasstation.monitoring.QueryBudget;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entity ids come from pooled-lo {@code <table>_id_seq} generators so that
+ * inserts batch, and {@link IdGeneratorSeeder} keeps those generators clear of
+ * ids that already exist in the table.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class PooledIdGenerationTest {
+
+    private static final int LINES = 30;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdGeneratorSeeder idGeneratorSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void thirtyLineCheckoutInsertsItsLinesInBatches() throws Exception {
+        Category category = categoryRepository.findAll().get(0);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product("Batch item " + i, "BATCH" + String.format("%07d", i),
+                    new BigDecimal("0.50"), new BigDecimal("1.00"), category);
+            product.setCurrentStock(100);
+            products.add(product);
+        }
+        productRepository.saveAllAndFlush(products);
+
+        CheckoutRequest request = new CheckoutRequest();
+        request.setPaymentMethod(PaymentMethod.CASH);
+        for (Product product : products) {
+            request.getItems().add(new CheckoutItemRequest(product.getId(), 1));
+        }
+        Long cashierId = userRepository.findByUsername("admin").orElseThrow().getId();
+
+        // Unbatched this is over 60 statements; batch_size 25 sends the 30 item inserts as two
+        TransactionSummary receipt = QueryBudget.expectAtMost(13, () -> checkoutService.checkout(request, cashierId));
+
+        List<Long> itemIds = receipt.items().stream().map(TransactionLineSummary::id).distinct().toList();
+        assertEquals(LINES, itemIds.size());
+        assertEquals(LINES, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_items WHERE transaction_id = ?", Integer.class, receipt.id()));
+    }
+
+    @Test
+    void seederMovesGeneratorsPastRowsInsertedOutsideHibernate() throws Exception {
+        // Where the next pooled block would start, i.e. the id a stale generator would hand out next
+        long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR categories_id_seq", Long.class);
+        long handInserted = next + 50;
+        jdbcTemplate.update("INSERT INTO categories (id, name, tax_rate, active, created_at, version) "
+                + "VALUES (?, 'Inserted by hand', 0, TRUE, CURRENT_TIMESTAMP, 0)", handInserted);
+
+        idGeneratorSeeder.seed();
+
+        long afterSeeding = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR categories_id_seq", Long.class);
+        assertTrue(afterSeeding > handInserted,
+                "categories_id_seq hands out " + afterSeeding + " although id " + handInserted + " exists");
+    }
+}
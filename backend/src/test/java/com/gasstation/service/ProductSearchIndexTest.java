@@ -0,0 +1,51 @@
+package com.gasstation.service;
+
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void rebuildKeepsServingAndKeepsSalesReportedWhileItReads() {
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        index.index(List.of(summary(1L, "Windshield washer fluid", 10), summary(2L, "Motor oil 5W-30", 4)));
+
+        when(productRepository.findAllSummaries()).thenAnswer(invocation -> {
+            // Read before this sale committed; the sale reports while the rebuild is still running
+            List<ProductSummary> snapshot = List.of(summary(1L, "Windshield washer fluid", 10),
+                    summary(2L, "Motor oil 5W-30", 4));
+            index.adjustStock(1L, -2);
+            assertEquals(1, index.search("washer", 10).size());
+            return snapshot;
+        });
+        index.rebuild();
+
+        List<ProductSummary> hits = index.search("washer", 10);
+        assertEquals(1, hits.size());
+        assertEquals(8, hits.get(0).currentStock());
+        assertEquals(2, index.size());
+
+        // Nothing recorded any more once the rebuild is done
+        index.adjustStock(1L, -1);
+        index.index(List.of(summary(1L, "Windshield washer fluid", 20)));
+        assertEquals(20, index.search("washer", 10).get(0).currentStock());
+    }
+
+    private static ProductSummary summary(Long id, String name, int stock) {
+        return new ProductSummary(id, name, "00000000000" + id, new BigDecimal("3.99"), new BigDecimal("2.10"),
+                stock, 5, false, true, null, 1L, "Automotive", new BigDecimal("8.25"));
+    }
+}
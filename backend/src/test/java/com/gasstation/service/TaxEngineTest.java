@@ -0,0 +1,66 @@
+package com.gasstation.service;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaxEngineTest {
+
+    /** Percentages using the full scale of categories.tax_rate, including the V2 sample rate. */
+    private static final String[] RATES = {"0.0875", "8.2500", "8.875", "7.1234", "15.50", "0", "9.9999"};
+
+    private final TaxEngine invoiceRounding = new TaxEngine(RoundingMode.HALF_UP, TaxEngine.Level.INVOICE);
+
+    @Test
+    void matchesTheBigDecimalTotalsForScaleFourRates() {
+        Random random = new Random(42);
+        for (int sale = 0; sale < 2_000; sale++) {
+            Transaction transaction = new Transaction("TXN-" + sale, null, PaymentMethod.CASH);
+            int lines = 1 + random.nextInt(30);
+            for (int line = 0; line < lines; line++) {
+                Category category = new Category("Category", new BigDecimal(RATES[random.nextInt(RATES.length)]));
+                Product product = new Product("Product", null, BigDecimal.ONE,
+                        BigDecimal.valueOf(1 + random.nextInt(50_000), 2), category);
+                transaction.getItems().add(new TransactionItem(1 + random.nextInt(12), product.getPrice(), product,
+                        transaction));
+            }
+
+            BigDecimal[] expected = bigDecimalTotals(transaction);
+            invoiceRounding.total(transaction);
+
+            assertEquals(expected[0], transaction.getSubtotal(), "subtotal of sale " + sale);
+            assertEquals(expected[1], transaction.getTaxAmount(), "tax of sale " + sale);
+            assertEquals(expected[0].add(expected[1]), transaction.getTotalAmount(), "total of sale " + sale);
+        }
+    }
+
+    @Test
+    void rejectsRatesBeyondTheColumnScale() {
+        assertEquals(875, Money.toRateUnits(new BigDecimal("0.0875")));
+        assertEquals(82_500, Money.toRateUnits(new BigDecimal("8.250000")));
+        assertThrows(ArithmeticException.class, () -> Money.toRateUnits(new BigDecimal("8.25001")));
+    }
+
+    /** The loop CheckoutService used before totals moved to cents, with its tax rounded to cents once. */
+    private static BigDecimal[] bigDecimalTotals(Transaction transaction) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal taxAmount = BigDecimal.ZERO;
+        for (TransactionItem item : transaction.getItems()) {
+            BigDecimal itemTotal = item.getUnitPrice().multiply(new BigDecimal(item.getQuantity()));
+            subtotal = subtotal.add(itemTotal);
+            BigDecimal taxRate = item.getProduct().getCategory().getTaxRate();
+            taxAmount = taxAmount.add(itemTotal.multiply(taxRate.divide(new BigDecimal("100"))));
+        }
+        return new BigDecimal[]{subtotal.setScale(2), taxAmount.setScale(2, RoundingMode.HALF_UP)};
+    }
+}
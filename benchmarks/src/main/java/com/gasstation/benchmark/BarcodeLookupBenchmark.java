@@ -0,0 +1,91 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.dto.ScanResult;
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+import com.gasstation.repository.CategoryRepository;
+import com.gasstation.repository.LotteryGameRepository;
+import com.gasstation.repository.ProductRepository;
+import com.gasstation.service.BarcodeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The scan path against a warm index of 5,000 products: the raw
+ * {@code BarcodeIndex.lookup} hit, the full {@code /api/pos/scan} mapping to
+ * {@link ScanResult}, and the in-memory part of a miss (the repositories are
+ * stubbed, so a real miss adds two database round trips on top).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BarcodeLookupBenchmark {
+
+    private static final int PRODUCTS = 5_000;
+
+    private BarcodeIndex index;
+    private String[] scans;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Category> categories = StoreFixtures.categories();
+        Map<Long, Category> categoriesById = categories.stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        List<Product> products = StoreFixtures.products(PRODUCTS, categories);
+
+        index = new BarcodeIndex();
+        StoreFixtures.inject(index, "categoryRepository", StoreFixtures.repository(CategoryRepository.class,
+                Map.of("findById", args -> Optional.ofNullable(categoriesById.get((Long) args[0])))));
+        StoreFixtures.inject(index, "productRepository", StoreFixtures.repository(ProductRepository.class,
+                Map.of("findByBarcode", args -> Optional.empty())));
+        StoreFixtures.inject(index, "lotteryGameRepository", StoreFixtures.repository(LotteryGameRepository.class,
+                Map.of("findByBarcode", args -> Optional.empty())));
+        products.forEach(index::putProduct);
+
+        Random random = new Random(7);
+        scans = new String[1024];
+        for (int i = 0; i < scans.length; i++) {
+            scans[i] = StoreFixtures.barcode(random.nextInt(PRODUCTS));
+        }
+    }
+
+    private String nextScan() {
+        next = (next + 1) & (scans.length - 1);
+        return scans[next];
+    }
+
+    @Benchmark
+    public Optional<BarcodeIndex.Entry> lookupHit() {
+        return index.lookup(nextScan());
+    }
+
+    @Benchmark
+    public Optional<ScanResult> scanHit() {
+        return index.lookup(nextScan()).map(ScanResult::from);
+    }
+
+    @Benchmark
+    public Optional<BarcodeIndex.Entry> lookupMiss() {
+        return index.lookup("999999999999");
+    }
+}
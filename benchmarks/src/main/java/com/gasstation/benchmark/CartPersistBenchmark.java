@@ -0,0 +1,184 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.config.TableSequenceNamingStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to persist one checkout (a transaction row plus its lines) with
+ * IDENTITY ids, as the entities used to be mapped, against the pooled-lo
+ * sequence mapping now used by {@code BaseEntity}. Under IDENTITY every line
+ * is its own INSERT; with pooled ids the lines go out in JDBC batches of 25.
+ *
+ * <p>Both variants run against in-process H2, where a round trip costs almost
+ * nothing, so the gap measured here is a lower bound for a remote database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartPersistBenchmark {
+
+    @Param({"5", "30"})
+    public int lines;
+
+    private HikariDataSource identityDataSource;
+
+    private HikariDataSource pooledDataSource;
+
+    private SessionFactory identityFactory;
+
+    private SessionFactory pooledFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        identityDataSource = dataSource("identity");
+        pooledDataSource = dataSource("pooled");
+        identityFactory = sessionFactory(identityDataSource, IdentityCart.class, IdentityCartLine.class);
+        pooledFactory = sessionFactory(pooledDataSource, PooledCart.class, PooledCartLine.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        identityFactory.close();
+        pooledFactory.close();
+        identityDataSource.close();
+        pooledDataSource.close();
+    }
+
+    @Benchmark
+    public Long identityIds() {
+        try (Session session = identityFactory.openSession()) {
+            session.beginTransaction();
+            IdentityCart cart = new IdentityCart();
+            session.persist(cart);
+            for (int i = 0; i < lines; i++) {
+                IdentityCartLine line = new IdentityCartLine();
+                line.cartId = cart.id;
+                line.productId = (long) i;
+                line.quantity = 1;
+                line.totalPrice = BigDecimal.ONE;
+                session.persist(line);
+            }
+            session.getTransaction().commit();
+            return cart.id;
+        }
+    }
+
+    @Benchmark
+    public Long pooledLoSequence() {
+        try (Session session = pooledFactory.openSession()) {
+            session.beginTransaction();
+            PooledCart cart = new PooledCart();
+            session.persist(cart);
+            for (int i = 0; i < lines; i++) {
+                PooledCartLine line = new PooledCartLine();
+                line.cartId = cart.id;
+                line.productId = (long) i;
+                line.quantity = 1;
+                line.totalPrice = BigDecimal.ONE;
+                session.persist(line);
+            }
+            session.getTransaction().commit();
+            return cart.id;
+        }
+    }
+
+    private static HikariDataSource dataSource(String database) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    private static SessionFactory sessionFactory(HikariDataSource dataSource, Class<?>... entities) {
+        Configuration configuration = new Configuration();
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        configuration
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "25")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.ID_DB_STRUCTURE_NAMING_STRATEGY, TableSequenceNamingStrategy.class.getName());
+        for (Class<?> entity : entities) {
+            configuration.addAnnotatedClass(entity);
+        }
+        return configuration.buildSessionFactory();
+    }
+
+    @Entity
+    @Table(name = "identity_carts")
+    public static class IdentityCart {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "identity_cart_lines")
+    public static class IdentityCartLine {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        Long cartId;
+        Long productId;
+        Integer quantity;
+        BigDecimal totalPrice;
+    }
+
+    @Entity
+    @Table(name = "pooled_carts")
+    public static class PooledCart {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled_id")
+        @GenericGenerator(name = "pooled_id", type = SequenceStyleGenerator.class, parameters = {
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+        })
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "pooled_cart_lines")
+    public static class PooledCartLine {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled_id")
+        @GenericGenerator(name = "pooled_id", type = SequenceStyleGenerator.class, parameters = {
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+        })
+        Long id;
+        Long cartId;
+        Long productId;
+        Integer quantity;
+        BigDecimal totalPrice;
+    }
+}
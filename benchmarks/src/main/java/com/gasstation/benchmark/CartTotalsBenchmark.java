@@ -0,0 +1,84 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.service.CheckoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subtotal and per-category tax for a sale, as run on every checkout and
+ * transaction edit ({@code CheckoutService.calculateTotals}, which totals in
+ * long cents through {@code TaxEngine}) and by the entity's own
+ * {@code Transaction.calculateTotals}. {@code bigDecimalTotals} is the
+ * BigDecimal loop CheckoutService used before; run with {@code -prof gc} to
+ * compare allocation per sale.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalsBenchmark {
+
+    @Param({"5", "30"})
+    public int lines;
+
+    private CheckoutService checkoutService;
+    private Transaction sale;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = StoreFixtures.products(500, StoreFixtures.categories());
+        checkoutService = StoreFixtures.checkoutService();
+        sale = StoreFixtures.sale(lines, products);
+    }
+
+    @Benchmark
+    public Transaction checkoutServiceTotals() {
+        checkoutService.calculateTotals(sale);
+        return sale;
+    }
+
+    @Benchmark
+    public Transaction bigDecimalTotals() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal taxAmount = BigDecimal.ZERO;
+        for (TransactionItem item : sale.getItems()) {
+            BigDecimal itemTotal = item.getUnitPrice().multiply(new BigDecimal(item.getQuantity()));
+            item.setTotalPrice(itemTotal);
+            subtotal = subtotal.add(itemTotal);
+            if (item.getProduct() != null && item.getProduct().getCategory() != null) {
+                BigDecimal taxRate = item.getProduct().getCategory().getTaxRate();
+                if (taxRate != null) {
+                    taxAmount = taxAmount.add(itemTotal.multiply(taxRate.divide(new BigDecimal("100"))));
+                }
+            }
+        }
+        sale.setSubtotal(subtotal);
+        sale.setTaxAmount(taxAmount);
+        sale.setTotalAmount(subtotal.add(taxAmount));
+        return sale;
+    }
+
+    @Benchmark
+    public Transaction entityTotals() {
+        sale.calculateTotals();
+        return sale;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gasstation.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and flags
+ * every benchmark that got slower by more than the tolerance (default 10%).
+ * Exits with status 1 when anything regressed, so it can gate a build.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar -rf json -rff target/current.json
+ * java -cp target/benchmarks.jar com.gasstation.benchmark.CompareToBaseline baseline.json target/current.json [tolerance%]
+ * </pre>
+ *
+ * Benchmarks whose score moved by less than the combined error margins are
+ * reported as unchanged whatever the percentage says.
+ */
+public final class CompareToBaseline {
+
+    private CompareToBaseline() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareToBaseline <baseline.json> <current.json> [tolerance-percent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-75s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-75s %14s %14s %9s%n", entry.getKey(), "-", now.format(), "new");
+                continue;
+            }
+            if (!before.unit.equals(now.unit)) {
+                System.out.printf("%-75s %14s %14s %9s%n", entry.getKey(), before.format(), now.format(), "unit?");
+                continue;
+            }
+            double change = (now.score - before.score) / before.score;
+            // In throughput mode bigger is better; in every time mode smaller is
+            double worse = now.higherIsBetter ? -change : change;
+            boolean significant = Math.abs(now.score - before.score) > before.error + now.error;
+            String verdict = "";
+            if (significant && worse > tolerance) {
+                verdict = "  REGRESSION";
+                regressions++;
+            } else if (significant && worse < -tolerance) {
+                verdict = "  improved";
+            }
+            System.out.printf("%-75s %14s %14s %+8.1f%%%s%n",
+                    entry.getKey(), before.format(), now.format(), change * 100, verdict);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-75s %14s %14s %9s%n", missing, baseline.get(missing).format(), "-", "not run");
+            }
+        }
+        System.out.printf("%n%d regression(s) beyond %.0f%%%n", regressions, tolerance * 100);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode metric = run.get("primaryMetric");
+            results.put(key(run), new Result(
+                    metric.get("score").asDouble(),
+                    metric.path("scoreError").asDouble(0),
+                    metric.get("scoreUnit").asText(),
+                    "thrpt".equals(run.get("mode").asText())));
+        }
+        return results;
+    }
+
+    /** Benchmark name plus its parameters in a stable order, e.g. {@code CartTotalsBenchmark.entityTotals(lines=30)}. */
+    private static String key(JsonNode run) {
+        String name = run.get("benchmark").asText().replace("com.gasstation.benchmark.", "");
+        JsonNode params = run.get("params");
+        if (params == null || params.isEmpty()) {
+            return name;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> param = it.next();
+            sorted.put(param.getKey(), param.getValue().asText());
+        }
+        StringBuilder key = new StringBuilder(name).append('(');
+        sorted.forEach((param, value) -> key.append(param).append('=').append(value).append(','));
+        key.setCharAt(key.length() - 1, ')');
+        return key.toString();
+    }
+
+    private record Result(double score, double error, String unit, boolean higherIsBetter) {
+
+        String format() {
+            return String.format("%.3f %s", score, unit);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.gasstation.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.dto.TransactionSummary;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the same Jackson setup as the application:
+ * a 10-line receipt as the entity graph vs. {@link TransactionSummary}, and
+ * the 500-product catalog as entities (category nested in each) vs.
+ * {@link ProductSummary}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Transaction receipt;
+    private TransactionSummary receiptSummary;
+    private List<Product> catalog;
+    private List<ProductSummary> catalogSummaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        catalog = StoreFixtures.products(500, StoreFixtures.categories());
+        catalogSummaries = catalog.stream().map(ProductSummary::from).toList();
+        receipt = StoreFixtures.sale(10, catalog);
+        StoreFixtures.checkoutService().calculateTotals(receipt);
+        receiptSummary = TransactionSummary.from(receipt);
+    }
+
+    @Benchmark
+    public byte[] receiptEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(receipt);
+    }
+
+    @Benchmark
+    public byte[] receiptSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(receiptSummary);
+    }
+
+    @Benchmark
+    public byte[] catalogEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] catalogSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalogSummaries);
+    }
+}
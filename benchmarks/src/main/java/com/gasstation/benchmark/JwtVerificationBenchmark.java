@@ -0,0 +1,104 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.security.CustomUserDetailsService;
+import com.gasstation.security.JwtUtils;
+import com.gasstation.security.JwtVerifier;
+import com.gasstation.security.UserCache;
+import com.gasstation.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into claims, plus the cost of
+ * issuing one at login.
+ *
+ * <ul>
+ *   <li>{@code legacy}: what the filter used to do. It rebuilt the HMAC key and
+ *       parser for validateJwtToken and again for getUserNameFromJwtToken.</li>
+ *   <li>{@code parseOnce}: prebuilt parser, one full verification.</li>
+ *   <li>{@code verifierCacheHit}: JwtVerifier on a token it has already seen,
+ *       which is what a lane that keeps its token all shift costs to verify.</li>
+ *   <li>{@code authenticate}: the filter's steady state per request, a
+ *       verifier cache hit plus {@code UserCache.isCurrent} against a cached
+ *       user.</li>
+ *   <li>{@code generate}: signing a fresh token, as {@code /api/auth/signin} does.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private JwtUtils jwtUtils;
+    private JwtVerifier verifier;
+    private UserCache userCache;
+    private UserPrincipal cashier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cashier = new UserPrincipal(3L, "cashier1", "cashier@gasstation.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CASHIER")), true, 2L);
+        jwtUtils = new JwtUtils(SECRET, 86400);
+        verifier = new JwtVerifier(jwtUtils, 1024);
+        userCache = new UserCache(new CustomUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return cashier;
+            }
+        }, 3600, 1000);
+        token = jwtUtils.generateJwtToken(cashier);
+        if (!userCache.isCurrent(verifier.verify(token))) {
+            throw new IllegalStateException("Benchmark token would be refused");
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String legacy() {
+        Jwts.parser().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).parseClaimsJws(token);
+        return Jwts.parser().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims parseOnce() {
+        return jwtUtils.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifierCacheHit() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public boolean authenticate() {
+        return userCache.isCurrent(verifier.verify(token));
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(cashier);
+    }
+}
@@ -0,0 +1,88 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.dto.ProductSummary;
+import com.gasstation.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead queries against a {@link ProductSearchIndex} of 50,000 products
+ * named like a real catalog (brand, item, size). {@code query} covers a
+ * two-letter prefix that matches thousands of products, a full word, an infix
+ * that only trigrams can find, two words, a barcode prefix and a miss.
+ * {@code linearScan} is the {@code LIKE %name%} the endpoint replaces, run in
+ * memory, so it is a lower bound on what the database did.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 50_000;
+
+    private static final String[] BRANDS = {"Coca-Cola", "Pepsi", "Red Bull", "Monster", "Lay's", "Doritos", "Snickers",
+            "Marlboro", "Castrol", "Pennzoil", "Gatorade", "Arizona", "Slim Jim", "Hershey's", "Reese's", "Kind", "Clif",
+            "Starbucks", "Folgers", "Duracell", "Energizer", "Bic", "Trojan", "Advil", "Tylenol", "Wrigley's", "Skittles"};
+    private static final String[] ITEMS = {"Cola", "Zero Sugar", "Energy Drink", "Classic Chips", "Nacho Cheese",
+            "Chocolate Bar", "Motor Oil 5W-30", "Sports Drink", "Iced Tea", "Beef Stick", "Peanut Butter Cups",
+            "Protein Bar", "Cold Brew", "AA Batteries", "Lighter", "Pain Reliever", "Chewing Gum", "Candy"};
+    private static final String[] SIZES = {"12oz", "16oz", "20oz", "1L", "2L", "Single", "King Size", "6-Pack",
+            "12-Pack", "Quart", "Family Size", "2ct", "4ct", "24ct"};
+
+    @Param({"co", "cola", "ergy", "monster 16", "10000000123", "zzzz"})
+    public String query;
+
+    private ProductSearchIndex index;
+    private List<ProductSummary> products;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String item = ITEMS[random.nextInt(ITEMS.length)];
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + item + " " + SIZES[random.nextInt(SIZES.length)];
+            products.add(new ProductSummary((long) i + 1, name, StoreFixtures.barcode(i),
+                    BigDecimal.valueOf(99 + random.nextInt(900), 2), BigDecimal.ONE, 100, 10, false, true,
+                    item + " variety " + (i % 97), (long) (i % 6) + 1, "Category", new BigDecimal("8.25")));
+        }
+        index = new ProductSearchIndex();
+        index.index(products);
+    }
+
+    @Benchmark
+    public List<ProductSummary> search() {
+        return index.search(query, ProductSearchIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<ProductSummary> linearScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<ProductSummary> matches = new ArrayList<>();
+        for (ProductSummary product : products) {
+            if (product.name().toLowerCase(Locale.ROOT).contains(needle) && matches.size() < ProductSearchIndex.DEFAULT_LIMIT) {
+                matches.add(product);
+            }
+        }
+        return matches;
+    }
+}
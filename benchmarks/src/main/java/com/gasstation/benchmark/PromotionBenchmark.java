@@ -0,0 +1,97 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Promotion;
+import com.gasstation.repository.PromotionRepository;
+import com.gasstation.service.PromotionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discount for a 10-line cart with 20 or 200 running promotions.
+ *
+ * <ul>
+ *   <li>{@code calculateDiscountPerPromotion}: every promotion checks every
+ *       line for eligibility and calls {@code Promotion.calculateDiscount} on
+ *       the eligible amount, the way the client used to price carts.</li>
+ *   <li>{@code compiledEngine}: {@code PromotionEngine.price}, which only
+ *       visits the promotions indexed under each line's product and category.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromotionBenchmark {
+
+    private static final int LINES = 10;
+
+    @Param({"20", "200"})
+    public int promotionCount;
+
+    private List<Promotion> promotions;
+    private List<PromotionEngine.CartLine> cart;
+    private PromotionEngine engine;
+
+    @Setup
+    public void setUp() {
+        List<Category> categories = StoreFixtures.categories();
+        List<Product> products = StoreFixtures.products(500, categories);
+        promotions = StoreFixtures.promotions(promotionCount, products, categories);
+
+        cart = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            Product product = products.get(i * 7 % products.size());
+            cart.add(new PromotionEngine.CartLine(product.getId(), product.getCategory().getId(),
+                    product.getPrice().multiply(BigDecimal.valueOf(1 + i % 3))));
+        }
+
+        engine = new PromotionEngine();
+        StoreFixtures.inject(engine, "promotionRepository",
+                StoreFixtures.repository(PromotionRepository.class, Map.of("findByActiveTrue", args -> promotions)));
+        engine.rebuild();
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscountPerPromotion() {
+        BigDecimal discount = BigDecimal.ZERO;
+        for (Promotion promotion : promotions) {
+            List<Long> productIds = promotion.getEligibleProductIds();
+            List<Long> categoryIds = promotion.getEligibleCategoryIds();
+            boolean storeWide = productIds.isEmpty() && categoryIds.isEmpty();
+            BigDecimal eligible = BigDecimal.ZERO;
+            for (PromotionEngine.CartLine line : cart) {
+                if (storeWide || productIds.contains(line.productId()) || categoryIds.contains(line.categoryId())) {
+                    eligible = eligible.add(line.lineTotal());
+                }
+            }
+            if (eligible.signum() > 0) {
+                discount = discount.add(promotion.calculateDiscount(eligible));
+            }
+        }
+        return discount;
+    }
+
+    @Benchmark
+    public Object compiledEngine() {
+        return engine.price(cart);
+    }
+}
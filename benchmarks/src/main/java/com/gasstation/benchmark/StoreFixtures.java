@@ -0,0 +1,144 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.entity.Category;
+import com.gasstation.entity.PaymentMethod;
+import com.gasstation.entity.Product;
+import com.gasstation.entity.Promotion;
+import com.gasstation.entity.PromotionType;
+import com.gasstation.entity.Transaction;
+import com.gasstation.entity.TransactionItem;
+import com.gasstation.entity.TransactionStatus;
+import com.gasstation.entity.User;
+import com.gasstation.service.CheckoutService;
+import com.gasstation.service.TaxEngine;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic in-memory store data for the benchmarks, plus the two bits of
+ * plumbing needed to run Spring components without a context: repository
+ * stubs and field injection.
+ */
+final class StoreFixtures {
+
+    private static final String[] CATEGORY_NAMES = {"Beverages", "Snacks", "Tobacco", "Automotive", "Grocery", "Hot Food"};
+    private static final String[] TAX_RATES = {"8.25", "8.25", "10.00", "8.25", "2.25", "8.25"};
+
+    private StoreFixtures() {}
+
+    static List<Category> categories() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            Category category = new Category(CATEGORY_NAMES[i], new BigDecimal(TAX_RATES[i]));
+            category.setId((long) i + 1);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /** {@code count} active products spread over the categories, with 12-digit barcodes. */
+    static List<Product> products(int count, List<Category> categories) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal cost = BigDecimal.valueOf(50 + random.nextInt(900), 2);
+            BigDecimal price = cost.multiply(new BigDecimal("1.35")).setScale(2, RoundingMode.HALF_UP);
+            Product product = new Product("Product " + i, barcode(i), cost, price, categories.get(i % categories.size()));
+            product.setId((long) i + 1);
+            product.setCurrentStock(100 + random.nextInt(400));
+            product.setReorderThreshold(10);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static String barcode(int index) {
+        return String.format("%012d", 100_000_000_000L + index);
+    }
+
+    /**
+     * A realistic promotion mix: a few store-wide deals, the rest targeted at
+     * single products or categories. Every promotion is running now.
+     */
+    static List<Promotion> promotions(int count, List<Product> products, List<Category> categories) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Promotion> promotions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean percentage = i % 2 == 0;
+            Promotion promotion = new Promotion("Promo " + i,
+                    percentage ? PromotionType.PERCENTAGE : PromotionType.FIXED_AMOUNT,
+                    percentage ? new BigDecimal("10") : new BigDecimal("0.50"),
+                    now.minusDays(1), now.plusDays(30));
+            promotion.setId((long) i + 1);
+            if (i % 5 == 0) {
+                promotion.setMinPurchaseAmount(new BigDecimal("20.00"));
+            } else if (i % 5 < 3) {
+                promotion.setEligibleProductIds(new ArrayList<>(List.of(products.get(i * 7 % products.size()).getId())));
+            } else {
+                promotion.setEligibleCategoryIds(new ArrayList<>(List.of(categories.get(i % categories.size()).getId())));
+            }
+            promotions.add(promotion);
+        }
+        return promotions;
+    }
+
+    /** A completed sale of {@code lines} distinct products, totals not yet calculated. */
+    static Transaction sale(int lines, List<Product> products) {
+        User cashier = new User("cashier1", "cashier1@gasstation.com", "x", "Casey", "Cashier");
+        cashier.setId(3L);
+        Transaction transaction = new Transaction("TXN-BENCH-000001", cashier, PaymentMethod.CASH);
+        transaction.setId(1L);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        List<TransactionItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i * 13 % products.size());
+            TransactionItem item = new TransactionItem(1 + i % 3, product.getPrice(), product, transaction);
+            item.setId((long) i + 1);
+            items.add(item);
+        }
+        transaction.setItems(items);
+        return transaction;
+    }
+
+    /** A CheckoutService able to total sales, with the default tax rules. */
+    static CheckoutService checkoutService() {
+        CheckoutService checkoutService = new CheckoutService();
+        inject(checkoutService, "taxEngine", new TaxEngine(RoundingMode.HALF_UP, TaxEngine.Level.INVOICE));
+        return checkoutService;
+    }
+
+    /**
+     * A repository stub answering the named methods from their arguments; any
+     * other call fails loudly so a benchmark never measures a silent null.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+
+    /** Sets a private {@code @Autowired} field the way the container would. */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gasstation.benchmark;
+
+import com.gasstation.service.SnowflakeTransactionNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction numbers are taken once per checkout by every lane of a node, so
+ * the interesting number is throughput when many checkout threads hit the same
+ * generator. A synchronized counter is included as the "global lock" baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionNumberGeneratorBenchmark {
+
+    private final SnowflakeTransactionNumberGenerator generator = new SnowflakeTransactionNumberGenerator(1);
+
+    private long lockedCounter;
+
+    @Benchmark
+    @Threads(1)
+    public String snowflakeSingleLane() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String snowflake16Lanes() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String snowflake64Lanes() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long snowflakeIdOnly64Lanes() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String synchronizedCounter64Lanes() {
+        long value;
+        synchronized (this) {
+            value = ++lockedCounter;
+        }
+        return "TXN-" + value;
+    }
+}
@@ -29,26 +29,26 @@ const Dashboard = () => {
     try {
       setDashboardData(prev => ({ ...prev, loading: true }));
       
+      // Only today's transactions are needed; the endpoint is paginated newest-first
+      const startOfToday = new Date();
+      startOfToday.setHours(0, 0, 0, 0);
+      const from = new Date(startOfToday.getTime() - startOfToday.getTimezoneOffset() * 60000)
+        .toISOString()
+        .slice(0, 19);
+
       // Fetch real data from APIs
-      const [transactionsResponse, productsResponse] = await Promise.all([
-        authService.getApiInstance().get('/pos/transactions'),
+      const [summaryResponse, transactionsResponse, productsResponse] = await Promise.all([
+        authService.getApiInstance().get('/reports/dashboard'),
+        authService.getApiInstance().get('/pos/transactions', { params: { from, limit: 200 } }),
         authService.getApiInstance().get('/products')
       ]);
 
-      const transactions = transactionsResponse.data;
+      const summary = summaryResponse.data;
+      const transactions = transactionsResponse.data.content;
       const products = productsResponse.data;
 
-      // Calculate today's sales - using date only comparison
-      const today = new Date();
-      const todayStr = today.toISOString().split('T')[0]; // Get YYYY-MM-DD format
-      
-      const todaysTransactions = transactions.filter(t => {
-        const transactionDate = new Date(t.transactionDate);
-        const transactionDateStr = transactionDate.toISOString().split('T')[0];
-        return transactionDateStr === todayStr;
-      });
-      
-      const todaysSales = todaysTransactions.reduce((sum, t) => sum + (t.totalAmount || 0), 0);
+      // Today's totals come pre-aggregated from the daily sales rollup
+      const todaysSales = summary.totals.totalAmount || 0;
 
       // Get low stock items - use reorder_threshold field
       const lowStockItems = products
@@ -65,8 +65,8 @@ const Dashboard = () => {
       transactions.forEach(t => {
         if (t.items && Array.isArray(t.items)) {
           t.items.forEach(item => {
-            const productId = item.product?.id || item.productId;
-            const productName = item.product?.name || 'Unknown Product';
+            const productId = item.productId;
+            const productName = item.productName || 'Unknown Product';
             if (productId) {
               if (!productSales[productId]) {
                 productSales[productId] = { id: productId, name: productName, sales: 0 };
@@ -112,7 +112,7 @@ const Dashboard = () => {
         lowStockItems,
         topProducts,
         recentTransactions,
-        totalTransactions: todaysTransactions.length, // Today's transaction count, not total
+        totalTransactions: summary.totals.transactionCount, // Today's transaction count, not total
         loading: false
       });
     } catch (error) {
@@ -398,7 +398,7 @@ const Dashboard = () => {
                   </div>
                   <div className="flex justify-between">
                     <span>Cashier:</span>
-                    <span>{selectedTransaction.cashier?.firstName} {selectedTransaction.cashier?.lastName}</span>
+                    <span>{selectedTransaction.cashierFirstName} {selectedTransaction.cashierLastName}</span>
                   </div>
                 </div>
 
@@ -408,7 +408,7 @@ const Dashboard = () => {
                     selectedTransaction.items.map((item, index) => (
                       <div key={index} className="flex justify-between text-sm mb-1">
                         <span className="flex-1">
-                          {item.product?.name || 'Unknown Product'} 
+                          {item.productName || 'Unknown Product'} 
                           <span className="text-gray-600 ml-2">
                             ({item.quantity} @ ${item.unitPrice?.toFixed(2) || '0.00'})
                           </span>
@@ -20,7 +20,8 @@ const Inventory = () => {
     { value: 'ADJUSTMENT', label: 'Adjustment' },
     { value: 'AUDIT', label: 'Manual Audit' },
     { value: 'DAMAGE', label: 'Damage/Loss' },
-    { value: 'SALE', label: 'Sale' }
+    { value: 'SALE', label: 'Sale' },
+    { value: 'RETURN', label: 'Return' }
   ];
 
   useEffect(() => {
@@ -134,7 +135,8 @@ const Inventory = () => {
       'ADJUSTMENT': 'bg-blue-100 text-blue-800',
       'AUDIT': 'bg-purple-100 text-purple-800',
       'DAMAGE': 'bg-red-100 text-red-800',
-      'SALE': 'bg-yellow-100 text-yellow-800'
+      'SALE': 'bg-yellow-100 text-yellow-800',
+      'RETURN': 'bg-teal-100 text-teal-800'
     };
     return colors[type] || 'bg-gray-100 text-gray-800';
   };
@@ -1,19 +1,21 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import authService from '../services/authService';
 
 const POS = () => {
   const [activeTab, setActiveTab] = useState('new');
   const [transactions, setTransactions] = useState([]);
-  const [products, setProducts] = useState([]);
-  const [promotions, setPromotions] = useState([]);
   const [loading, setLoading] = useState(true);
   const [cart, setCart] = useState([]);
   const [barcodeSearch, setBarcodeSearch] = useState('');
   const [searchResults, setSearchResults] = useState([]);
+  // Each keystroke fires a search; only the newest response may fill the list
+  const latestSearch = useRef(0);
   const [selectedPaymentMethod, setSelectedPaymentMethod] = useState('CASH');
   const [customerPaid, setCustomerPaid] = useState('');
   const [discountAmount, setDiscountAmount] = useState(0);
   const [appliedPromotions, setAppliedPromotions] = useState([]);
+  // Sent as Idempotency-Key; kept until the sale goes through so a retry cannot ring it up twice
+  const [checkoutKey, setCheckoutKey] = useState(null);
   const [selectedTransaction, setSelectedTransaction] = useState(null);
   const [showTransactionDetails, setShowTransactionDetails] = useState(false);
 
@@ -28,8 +30,7 @@ const POS = () => {
 
   useEffect(() => {
     if (activeTab === 'new') {
-      fetchProducts();
-      fetchPromotions();
+      setLoading(false);
     } else {
       fetchTransactions();
     }
@@ -39,7 +40,7 @@ const POS = () => {
     try {
       setLoading(true);
       const response = await authService.getApiInstance().get('/pos/transactions');
-      setTransactions(response.data);
+      setTransactions(response.data.content);
     } catch (error) {
       console.error('Error fetching transactions:', error);
     } finally {
@@ -47,33 +48,6 @@ const POS = () => {
     }
   };
 
-  const fetchProducts = async () => {
-    try {
-      setLoading(true);
-      const response = await authService.getApiInstance().get('/products');
-      setProducts(response.data);
-    } catch (error) {
-      console.error('Error fetching products:', error);
-    } finally {
-      setLoading(false);
-    }
-  };
-
-  const fetchPromotions = async () => {
-    try {
-      const response = await authService.getApiInstance().get('/promotions');
-      const activePromotions = response.data.filter(promotion => {
-        const now = new Date();
-        const start = new Date(promotion.startDate);
-        const end = new Date(promotion.endDate);
-        return promotion.active && now >= start && now <= end;
-      });
-      setPromotions(activePromotions);
-    } catch (error) {
-      console.error('Error fetching promotions:', error);
-    }
-  };
-
   const fetchTransactionDetails = async (transactionId) => {
     try {
       const response = await authService.getApiInstance().get(`/pos/transactions/${transactionId}`);
@@ -99,18 +73,23 @@ const POS = () => {
     }
   };
 
-  const handleProductSearch = (searchTerm) => {
+  const handleProductSearch = async (searchTerm) => {
+    const search = ++latestSearch.current;
     if (!searchTerm.trim()) {
       setSearchResults([]);
       return;
     }
 
-    const filtered = products.filter(product =>
-      product.currentStock > 0 &&
-      (product.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-       product.barcode.includes(searchTerm))
-    );
-    setSearchResults(filtered.slice(0, 10));
+    try {
+      const response = await authService.getApiInstance().get('/products/search', {
+        params: { q: searchTerm, limit: 10 }
+      });
+      if (search === latestSearch.current) {
+        setSearchResults(response.data.filter(product => product.active && product.currentStock > 0));
+      }
+    } catch (error) {
+      console.error('Error searching products:', error);
+    }
   };
 
   const addToCart = (product, quantity = 1) => {
@@ -186,70 +165,36 @@ const POS = () => {
 
   const [promotionDiscount, setPromotionDiscount] = useState(0);
 
-  // Calculate promotions when cart or promotions change
+  // Price promotions on the server whenever the cart changes
   useEffect(() => {
-    if (cart.length === 0 || promotions.length === 0) {
+    if (cart.length === 0) {
       setAppliedPromotions([]);
       setPromotionDiscount(0);
       return;
     }
 
-    let totalDiscount = 0;
-    const appliedPromos = [];
-
-    promotions.forEach(promotion => {
-      let isEligible = false;
-      let applicableAmount = 0;
-
-      // Check if promotion applies to any items in cart
-      cart.forEach(item => {
-        let itemEligible = false;
-
-        // If no specific products or categories are set, promotion applies to all
-        if ((!promotion.eligibleProductIds || promotion.eligibleProductIds.length === 0) &&
-            (!promotion.eligibleCategoryIds || promotion.eligibleCategoryIds.length === 0)) {
-          itemEligible = true;
-        } else {
-          // Check if product is in eligible products
-          if (promotion.eligibleProductIds && promotion.eligibleProductIds.includes(item.product.id)) {
-            itemEligible = true;
-          }
-          // Check if product's category is in eligible categories
-          if (promotion.eligibleCategoryIds && promotion.eligibleCategoryIds.includes(item.product.category?.id)) {
-            itemEligible = true;
-          }
-        }
-
-        if (itemEligible) {
-          isEligible = true;
-          applicableAmount += item.product.price * item.quantity;
+    let cancelled = false;
+    const items = cart.map(item => ({ productId: item.product.id, quantity: item.quantity }));
+    authService.getApiInstance().post('/pos/price-cart', { items })
+      .then(response => {
+        if (!cancelled) {
+          setAppliedPromotions(response.data.appliedPromotions);
+          setPromotionDiscount(response.data.discountAmount);
         }
+      })
+      .catch(error => {
+        console.error('Error pricing cart:', error);
       });
 
-      if (isEligible && applicableAmount > 0) {
-        // Check minimum purchase amount
-        const subtotal = cart.reduce((total, item) => total + (item.product.price * item.quantity), 0);
-        if (!promotion.minPurchaseAmount || subtotal >= promotion.minPurchaseAmount) {
-          let discount = 0;
-          if (promotion.promotionType === 'PERCENTAGE') {
-            discount = applicableAmount * (promotion.discountValue / 100);
-          } else {
-            discount = Math.min(promotion.discountValue, applicableAmount);
-          }
-          
-          totalDiscount += discount;
-          appliedPromos.push({
-            ...promotion,
-            discount: discount,
-            applicableAmount: applicableAmount
-          });
-        }
-      }
-    });
+    return () => {
+      cancelled = true;
+    };
+  }, [cart]);
 
-    setAppliedPromotions(appliedPromos);
-    setPromotionDiscount(totalDiscount);
-  }, [cart, promotions]);
+  // A different cart or tender is a different sale and needs a fresh key
+  useEffect(() => {
+    setCheckoutKey(null);
+  }, [cart, selectedPaymentMethod]);
 
   const getPaymentBreakdown = () => {
     const foodStampSubtotal = calculateFoodStampEligibleSubtotal();
@@ -259,7 +204,7 @@ const POS = () => {
     const nonFoodStampTax = cart
       .filter(item => !item.product.foodStampEligible)
       .reduce((tax, item) => {
-        const taxRate = item.product.category ? item.product.category.taxRate / 100 : 0;
+        const taxRate = (item.product.taxRate || 0) / 100;
         return tax + (item.product.price * item.quantity * taxRate);
       }, 0);
     
@@ -267,7 +212,7 @@ const POS = () => {
     const foodStampTax = selectedPaymentMethod === 'EBT' ? 0 : cart
       .filter(item => item.product.foodStampEligible)
       .reduce((tax, item) => {
-        const taxRate = item.product.category ? item.product.category.taxRate / 100 : 0;
+        const taxRate = (item.product.taxRate || 0) / 100;
         return tax + (item.product.price * item.quantity * taxRate);
       }, 0);
 
@@ -324,37 +269,22 @@ const POS = () => {
     }
 
     try {
-      const transactionItems = cart.map(item => ({
-        quantity: item.quantity,
-        unitPrice: item.product.price,
-        totalPrice: item.product.price * item.quantity,
-        discountAmount: 0,
-        product: {
-          id: item.product.id,
-          name: item.product.name,
-          price: item.product.price,
-          barcode: item.product.barcode,
-          category: item.product.category || null
-        }
-      }));
-
-      const subtotal = cart.reduce((total, item) => total + (item.product.price * item.quantity), 0);
-      const taxAmount = cart.reduce((tax, item) => {
-        const taxRate = item.product.category ? item.product.category.taxRate / 100 : 0;
-        return tax + (item.product.price * item.quantity * taxRate);
-      }, 0);
-
       const transactionData = {
         paymentMethod: selectedPaymentMethod,
         totalAmount: total,
-        items: transactionItems.map(item => ({
-          product: { id: item.product.id },
-          quantity: item.quantity,
-          unitPrice: item.unitPrice
+        items: cart.map(item => ({
+          productId: item.product.id,
+          quantity: item.quantity
         }))
       };
 
-      const response = await authService.getApiInstance().post('/pos/transactions', transactionData);
+      const idempotencyKey = checkoutKey
+        || (window.crypto?.randomUUID ? window.crypto.randomUUID() : `${Date.now()}-${Math.random().toString(36).slice(2)}`);
+      setCheckoutKey(idempotencyKey);
+
+      const response = await authService.getApiInstance().post('/pos/transactions', transactionData, {
+        headers: { 'Idempotency-Key': idempotencyKey }
+      });
       
       // Clear cart and reset form
       setCart([]);
@@ -371,7 +301,11 @@ const POS = () => {
       }
     } catch (error) {
       console.error('Error completing transaction:', error);
-      alert('Error completing transaction');
+      if (error.response?.status === 409) {
+        alert('Not enough stock for one or more items in the cart');
+      } else {
+        alert('Error completing transaction');
+      }
     }
   };
 
@@ -509,7 +443,7 @@ const POS = () => {
               <input
                 type="text"
                 onChange={(e) => handleProductSearch(e.target.value)}
-                placeholder="Search products by name..."
+                placeholder="Search products by name, barcode or description..."
                 className="w-full border rounded px-3 py-2 mb-2"
               />
               {searchResults.length > 0 && (
@@ -828,7 +762,7 @@ const POS = () => {
                         {transaction.transactionDate ? formatDate(transaction.transactionDate) : 'N/A'}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
-                        {transaction.cashier?.username || 'Unknown'}
+                        {transaction.cashierUsername || 'Unknown'}
                       </td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
                         {paymentMethods.find(pm => pm.value === transaction.paymentMethod)?.label || transaction.paymentMethod}
@@ -903,7 +837,7 @@ const POS = () => {
                     <span>{formatDate(selectedTransaction.transactionDate || selectedTransaction.createdAt)}</span>
                   </div>
                   <div className="flex justify-between text-sm">
-                    <span>Cashier: {selectedTransaction.cashier?.username || 'Unknown'}</span>
+                    <span>Cashier: {selectedTransaction.cashierUsername || 'Unknown'}</span>
                     <span>Payment: {paymentMethods.find(pm => pm.value === selectedTransaction.paymentMethod)?.label || selectedTransaction.paymentMethod}</span>
                   </div>
                 </div>
@@ -915,7 +849,7 @@ const POS = () => {
                     selectedTransaction.items.map((item, index) => (
                       <div key={index} className="flex justify-between text-sm mb-1">
                         <span className="flex-1">
-                          {item.product?.name || 'Unknown Product'} 
+                          {item.productName || 'Unknown Product'} 
                           <span className="text-gray-600 ml-2">
                             ({item.quantity} @ ${item.unitPrice?.toFixed(2) || '0.00'})
                           </span>
@@ -90,7 +90,7 @@ const Products = () => {
       cost: product.cost.toString(),
       currentStock: product.currentStock.toString(),
       reorderThreshold: product.reorderThreshold.toString(),
-      categoryId: product.category ? product.category.id.toString() : '',
+      categoryId: product.categoryId ? product.categoryId.toString() : '',
       description: product.description || '',
       active: product.active,
       foodStampEligible: product.foodStampEligible || false
@@ -174,8 +174,8 @@ const Products = () => {
           bValue = b.barcode || '';
           break;
         case 'category':
-          aValue = a.category?.name?.toLowerCase() || '';
-          bValue = b.category?.name?.toLowerCase() || '';
+          aValue = a.categoryName?.toLowerCase() || '';
+          bValue = b.categoryName?.toLowerCase() || '';
           break;
         case 'price':
           aValue = parseFloat(a.price);
@@ -328,7 +328,7 @@ const Products = () => {
                   {product.barcode || 'N/A'}
                 </td>
                 <td className="px-3 py-4 text-sm text-gray-500 text-center">
-                  {product.category?.name || 'N/A'}
+                  {product.categoryName || 'N/A'}
                 </td>
                 <td className="px-3 py-4 text-sm text-gray-500 text-center">
                   ${product.price.toFixed(2)}
@@ -181,7 +181,7 @@ const Services = () => {
                   {service.serviceDate ? formatDate(service.serviceDate) : 'N/A'}
                 </td>
                 <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
-                  {service.handledBy?.username || 'Unknown'}
+                  {service.handledByUsername || 'Unknown'}
                 </td>
                 <td className="px-6 py-4 whitespace-nowrap text-sm font-medium">
                   <button
@@ -0,0 +1,63 @@
+package com.gasstation.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The scannable products, fetched once from {@code /api/products}. Picks
+ * follow a Zipf distribution over a shuffled popularity order, so a few
+ * best sellers take most scans, as at a real register.
+ */
+final class Catalog {
+
+    record Item(long id, String barcode) {
+    }
+
+    private final List<Item> items;
+    private final double[] cumulative;
+
+    private Catalog(List<Item> items, double exponent) {
+        this.items = items;
+        cumulative = new double[items.size()];
+        double sum = 0;
+        for (int rank = 0; rank < items.size(); rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    static Catalog from(JsonNode products, long seed) {
+        List<Item> items = new ArrayList<>();
+        for (JsonNode product : products) {
+            if (product.path("active").asBoolean(false) && product.hasNonNull("barcode")
+                    && product.path("currentStock").asInt(0) > 0) {
+                items.add(new Item(product.get("id").asLong(), product.get("barcode").asText()));
+            }
+        }
+        if (items.isEmpty()) {
+            throw new IllegalStateException("No active, in-stock products with barcodes to scan");
+        }
+        Collections.shuffle(items, new Random(seed));
+        return new Catalog(items, 1.07);
+    }
+
+    Item pick(Random random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        return items.get(Math.min(rank, items.size() - 1));
+    }
+
+    int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,62 @@
+package com.gasstation.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one endpoint across all lanes. Latencies are kept
+ * in microseconds with three significant digits, up to one minute.
+ */
+final class EndpointStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private volatile Histogram latencies = newHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(MAX_MICROS, 3);
+    }
+
+    void record(long nanos, int status) {
+        latencies.recordValue(Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (status < 200 || status >= 300) {
+            errors.increment();
+            errorsByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    /** Drops everything recorded so far; used to discard the warm-up. */
+    void reset() {
+        latencies = newHistogram();
+        errors.reset();
+        errorsByStatus.clear();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Map<Integer, LongAdder> errorsByStatus() {
+        return errorsByStatus;
+    }
+}
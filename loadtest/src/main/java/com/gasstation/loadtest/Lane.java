@@ -0,0 +1,123 @@
+package com.gasstation.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One register. Signs in, then serves customers back to back: scans the
+ * basket, prices it, checks out, and every so often has a manager void the
+ * sale. A new cashier signs in every {@code shiftLength} customers.
+ */
+final class Lane implements Runnable {
+
+    private static final String[] PAYMENT_METHODS = {"CREDIT_CARD", "DEBIT_CARD", "CASH", "EBT", "GIFT_CARD"};
+    private static final int[] PAYMENT_WEIGHTS = {46, 24, 22, 4, 3};
+
+    private final ApiClient client;
+    private final LoadDriver.Settings settings;
+    private final String username;
+    private final Catalog catalog;
+    private final ManagerSession manager;
+    private final AtomicBoolean running;
+    private final LongAdder sales;
+    private final LongAdder voids;
+    private final Random random;
+
+    Lane(int number, ApiClient client, LoadDriver.Settings settings, Catalog catalog, ManagerSession manager,
+         AtomicBoolean running, LongAdder sales, LongAdder voids) {
+        this.client = client;
+        this.settings = settings;
+        this.username = settings.cashierFor(number);
+        this.catalog = catalog;
+        this.manager = manager;
+        this.running = running;
+        this.sales = sales;
+        this.voids = voids;
+        this.random = new Random(settings.seed() + number);
+    }
+
+    @Override
+    public void run() {
+        String token = null;
+        int served = 0;
+        while (running.get()) {
+            if (token == null || served % settings.shiftLength() == 0) {
+                token = client.login(username, settings.password());
+                if (token == null) {
+                    pause(1000);
+                    continue;
+                }
+            }
+            serveCustomer(token);
+            served++;
+            if (settings.thinkMillis() > 0) {
+                pause(settings.thinkMillis());
+            }
+        }
+    }
+
+    private void serveCustomer(String token) {
+        Map<Long, Integer> basket = new LinkedHashMap<>();
+        int size = 1;
+        while (size < 20 && random.nextDouble() < 0.45) {
+            size++;
+        }
+        for (int i = 0; i < size && running.get(); i++) {
+            Catalog.Item item = catalog.pick(random);
+            ApiClient.Response scan = client.get("scan", "/api/pos/scan/" + item.barcode(), token);
+            if (scan.ok()) {
+                basket.merge(item.id(), random.nextDouble() < 0.85 ? 1 : 2, Integer::sum);
+            }
+        }
+        if (basket.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> lines = new ArrayList<>(basket.size());
+        basket.forEach((productId, quantity) -> lines.add(Map.of("productId", productId, "quantity", quantity)));
+        client.post("price-cart", "/api/pos/price-cart", token, Map.of("items", lines));
+
+        String paymentMethod = PAYMENT_METHODS[pick(PAYMENT_WEIGHTS)];
+        ApiClient.Response checkout = client.post("checkout", "/api/pos/transactions", token,
+                Map.of("items", lines, "paymentMethod", paymentMethod));
+        if (!checkout.ok()) {
+            return;
+        }
+        sales.increment();
+
+        if (random.nextDouble() < settings.voidRate()) {
+            long id = checkout.body().path("id").asLong();
+            if (client.post("void", "/api/pos/transactions/" + id + "/void", manager.token(), Map.of()).ok()) {
+                voids.increment();
+            }
+        }
+    }
+
+    private int pick(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
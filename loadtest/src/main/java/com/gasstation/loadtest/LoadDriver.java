@@ -0,0 +1,169 @@
+package com.gasstation.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives N concurrent lanes (login, scan, price, checkout, occasional void)
+ * against a running backend and reports throughput and latency percentiles
+ * per endpoint.
+ *
+ * <pre>
+ * java -jar target/loadtest.jar --lanes=16 --duration=120 --warmup=20
+ * </pre>
+ *
+ * Lanes are closed loops: each waits for its response before sending the
+ * next request, like a cashier does. Latencies therefore show what a lane
+ * experiences, and throughput is what the backend sustains at that
+ * concurrency.
+ */
+public final class LoadDriver {
+
+    /** Endpoints in the order a sale touches them. */
+    private static final List<String> ENDPOINTS = List.of("login", "scan", "price-cart", "checkout", "void");
+
+    record Settings(String baseUrl, int lanes, int durationSeconds, int warmupSeconds, String cashierPattern,
+                    String password, String manager, String managerPassword, double voidRate, int shiftLength,
+                    long thinkMillis, long seed) {
+
+        static Settings parse(String[] args) {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            return new Settings(
+                    options.getOrDefault("url", "http://localhost:8080"),
+                    Integer.parseInt(options.getOrDefault("lanes", "8")),
+                    Integer.parseInt(options.getOrDefault("duration", "60")),
+                    Integer.parseInt(options.getOrDefault("warmup", "10")),
+                    options.getOrDefault("cashier", "admin"),
+                    options.getOrDefault("password", "password123"),
+                    options.getOrDefault("manager", "admin"),
+                    options.getOrDefault("manager-password", "password123"),
+                    Double.parseDouble(options.getOrDefault("void-rate", "0.02")),
+                    Integer.parseInt(options.getOrDefault("shift-length", "200")),
+                    Long.parseLong(options.getOrDefault("think-ms", "0")),
+                    Long.parseLong(options.getOrDefault("seed", "42")));
+        }
+
+        /**
+         * The username a lane signs in with. A pattern such as {@code lane%02d}
+         * (the synthetic data generator's cashiers) gives every lane its own.
+         */
+        String cashierFor(int lane) {
+            return cashierPattern.contains("%") ? String.format(cashierPattern, lane) : cashierPattern;
+        }
+    }
+
+    private LoadDriver() {}
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, settings.lanes())))
+                .build();
+        ApiClient client = new ApiClient(http, settings.baseUrl(), stats);
+
+        ManagerSession manager = new ManagerSession(client, settings.manager(), settings.managerPassword());
+        if (manager.token() == null) {
+            System.err.println("Cannot sign in as " + settings.manager() + " at " + settings.baseUrl());
+            System.exit(1);
+        }
+        ApiClient.Response products = client.get("catalog", "/api/products", manager.token());
+        if (!products.ok()) {
+            System.err.println("Cannot load the catalog: HTTP " + products.status());
+            System.exit(1);
+        }
+        Catalog catalog = Catalog.from(products.body(), settings.seed());
+        System.out.printf("Driving %d lanes against %s for %ds after %ds warm-up (%d scannable products)%n",
+                settings.lanes(), settings.baseUrl(), settings.durationSeconds(), settings.warmupSeconds(), catalog.size());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder sales = new LongAdder();
+        LongAdder voids = new LongAdder();
+        List<Thread> lanes = new ArrayList<>();
+        for (int i = 1; i <= settings.lanes(); i++) {
+            Thread lane = new Thread(new Lane(i, client, settings, catalog, manager, running, sales, voids), "lane-" + i);
+            lanes.add(lane);
+            lane.start();
+        }
+
+        Thread.sleep(settings.warmupSeconds() * 1000L);
+        stats.values().forEach(EndpointStats::reset);
+        sales.reset();
+        voids.reset();
+        long measuredFrom = System.nanoTime();
+
+        long progressEvery = 10;
+        for (long elapsed = 0; elapsed < settings.durationSeconds(); elapsed += progressEvery) {
+            Thread.sleep(Math.min(progressEvery, settings.durationSeconds() - elapsed) * 1000L);
+            double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+            System.out.printf("  %4.0fs  %8.1f sales/s  %8.1f req/s%n",
+                    seconds, sales.sum() / seconds, totalRequests(stats) / seconds);
+        }
+        running.set(false);
+        double measuredSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+        for (Thread lane : lanes) {
+            lane.join(30_000);
+        }
+
+        report(stats, measuredSeconds, sales.sum(), voids.sum());
+        System.exit(0);
+    }
+
+    private static long totalRequests(Map<String, EndpointStats> stats) {
+        long total = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            total += endpoint.latencies().getTotalCount();
+        }
+        return total;
+    }
+
+    private static void report(Map<String, EndpointStats> stats, double seconds, long sales, long voids) {
+        System.out.println();
+        System.out.printf("%-11s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, EndpointStats> ordered = new TreeMap<>((a, b) -> {
+            int ia = ENDPOINTS.indexOf(a);
+            int ib = ENDPOINTS.indexOf(b);
+            return ia >= 0 && ib >= 0 ? Integer.compare(ia, ib) : ia >= 0 ? -1 : ib >= 0 ? 1 : a.compareTo(b);
+        });
+        ordered.putAll(stats);
+        for (EndpointStats endpoint : ordered.values()) {
+            Histogram h = endpoint.latencies();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-11s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.name(), h.getTotalCount(), endpoint.errors(), h.getTotalCount() / seconds,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+        }
+        System.out.printf("%n%d sales (%.1f/s), %d voids in %.0fs%n", sales, sales / seconds, voids, seconds);
+        for (EndpointStats endpoint : ordered.values()) {
+            if (!endpoint.errorsByStatus().isEmpty()) {
+                System.out.printf("%s errors by status: %s%n", endpoint.name(), endpoint.errorsByStatus());
+            }
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.gasstation.loadtest;
+
+/** The manager whose token authorizes voids on every lane. */
+final class ManagerSession {
+
+    private final ApiClient client;
+    private final String username;
+    private final String password;
+    private volatile String token;
+
+    ManagerSession(ApiClient client, String username, String password) {
+        this.client = client;
+        this.username = username;
+        this.password = password;
+    }
+
+    String token() {
+        String current = token;
+        if (current == null) {
+            synchronized (this) {
+                if (token == null) {
+                    token = client.login(username, password);
+                }
+                current = token;
+            }
+        }
+        return current;
+    }
+}